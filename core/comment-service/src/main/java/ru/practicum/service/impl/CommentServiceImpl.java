@@ -7,7 +7,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.client.InternalEventFeignClient;
-import ru.practicum.client.InternalUserFeignClient;
+import ru.practicum.client.UserExistenceCache;
 import ru.practicum.dto.CommentDto;
 import ru.practicum.dto.EventFullDto;
 import ru.practicum.dto.NewCommentDto;
@@ -34,7 +34,7 @@ public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
     private final InternalEventFeignClient eventClient;
-    private final InternalUserFeignClient userClient;
+    private final UserExistenceCache userCache;
 
     @Override
     public CommentDto createComment(Long userId, NewCommentDto dto) {
@@ -86,8 +86,7 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     public void deleteByAdmin(Long commentId) {
-        getCommentById(commentId); // проверка, что комментарий существует
-        commentRepository.deleteById(commentId);
+        commentRepository.delete(getCommentById(commentId));
     }
 
     @Override
@@ -151,7 +150,7 @@ public class CommentServiceImpl implements CommentService {
     }
 
     private void getUserById(Long userId) {
-        userClient.getByUserId(userId);
+        userCache.checkExists(userId);
     }
 
     private EventFullDto getEventById(Long eventId) {
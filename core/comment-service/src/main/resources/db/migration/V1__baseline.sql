@@ -0,0 +1,11 @@
+-- Исходная схема comment-service. Базы, созданные раньше Hibernate (ddl-auto: update), уже содержат
+-- эту таблицу, поэтому миграция идемпотентна и для них ничего не меняет.
+
+-- Таблица комментариев
+CREATE TABLE IF NOT EXISTS comments (
+    id BIGSERIAL PRIMARY KEY,
+    author_id BIGINT,
+    event_id BIGINT,
+    text VARCHAR(500) NOT NULL,
+    created_on TIMESTAMP NOT NULL
+);
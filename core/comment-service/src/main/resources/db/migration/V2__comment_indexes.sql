@@ -0,0 +1,10 @@
+-- CONCURRENTLY не блокирует запись в comments; Flyway выполняет миграцию вне транзакции.
+-- Если построение прервётся, невалидный индекс нужно удалить вручную: IF NOT EXISTS его не пересоздаст.
+
+-- Комментарии события и фильтр по событию в админском поиске
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comments_event_id_created_on_idx
+    ON comments (event_id, created_on);
+
+-- Комментарии автора и фильтр по автору в админском поиске
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comments_author_id_created_on_idx
+    ON comments (author_id, created_on);
@@ -0,0 +1,150 @@
+package ru.practicum.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.exception.NotFoundException;
+import ru.practicum.mapper.CategoryMapper;
+import ru.practicum.repository.CategoryRepository;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Справочник категорий в памяти. Загружается целиком при старте и периодически перечитывается;
+ * изменения через {@link ru.practicum.service.CategoryService} применяются после коммита транзакции.
+ * Промах по id дочитывается из базы.
+ * Каждое применённое изменение увеличивает поколение кэша: снимок или промах, прочитанные из базы
+ * до изменения, не перезаписывают его. Изменения, сделанные через другие экземпляры event-service,
+ * видны здесь только после очередной перезагрузки, то есть с задержкой до category-cache.refresh-interval-ms.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+
+    private static final int RELOAD_ATTEMPTS = 3;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile ConcurrentSkipListMap<Long, CategoryDto> categories = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${category-cache.refresh-interval-ms:60000}",
+            fixedDelayString = "${category-cache.refresh-interval-ms:60000}")
+    public void reload() {
+        try {
+            for (int attempt = 0; attempt < RELOAD_ATTEMPTS; attempt++) {
+                long readAt = generation.get();
+                ConcurrentSkipListMap<Long, CategoryDto> fresh = new ConcurrentSkipListMap<>();
+                categoryRepository.findAll().forEach(category -> fresh.put(category.getId(),
+                        CategoryMapper.toCategoryDto(category)));
+                if (swapIfUnchanged(readAt, fresh)) {
+                    return;
+                }
+            }
+            log.debug("Категории менялись во время перезагрузки кэша, снимок отброшен");
+        } catch (Exception e) {
+            log.warn("Не удалось загрузить категории в кэш: {}", e.getMessage());
+        }
+    }
+
+    public CategoryDto get(Long catId) {
+        CategoryDto category = categories.get(catId);
+        if (category != null) {
+            return category;
+        }
+
+        long readAt = generation.get();
+        category = categoryRepository.findById(catId)
+                .map(CategoryMapper::toCategoryDto)
+                .orElseThrow(() -> new NotFoundException("The category with id: " + catId + " not found!"));
+        putIfUnchanged(readAt, category);
+        return category;
+    }
+
+    // Смещение округляется до целой страницы, как в PageRequest
+    public List<CategoryDto> getPage(int from, int size) {
+        if (!loaded) {
+            reload();
+        }
+        if (!loaded) {
+            return CategoryMapper.toCategoryDtoList(categoryRepository.findAllBy(PageRequest.of(from / size, size)));
+        }
+        return categories.values()
+                .stream()
+                .skip((long) (from / size) * size)
+                .limit(size)
+                .toList();
+    }
+
+    public void put(CategoryDto category) {
+        afterCommit(() -> apply(() -> categories.put(category.getId(), category)));
+    }
+
+    public void evict(Long catId) {
+        afterCommit(() -> apply(() -> categories.remove(catId)));
+    }
+
+    private void apply(Runnable change) {
+        lock.lock();
+        try {
+            change.run();
+            generation.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean swapIfUnchanged(long readAt, ConcurrentSkipListMap<Long, CategoryDto> fresh) {
+        lock.lock();
+        try {
+            if (generation.get() != readAt) {
+                return false;
+            }
+            categories = fresh;
+            loaded = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putIfUnchanged(long readAt, CategoryDto category) {
+        lock.lock();
+        try {
+            if (generation.get() == readAt) {
+                categories.put(category.getId(), category);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Откат транзакции не должен оставлять в кэше то, чего нет в базе
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
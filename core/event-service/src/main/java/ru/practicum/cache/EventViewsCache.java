@@ -0,0 +1,204 @@
+package ru.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.client.StatClient;
+import ru.practicum.ewm.dto.ViewStatsDto;
+import ru.practicum.model.Event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш числа просмотров (уникальных ip) по id события.
+ * Сервис статистики опрашивается только для промахов и при фоновой сверке;
+ * просмотры, записанные через {@link #recordView}, учитываются сразу.
+ * Набор учтённых ip на событие ограничен: у популярного события новые ip сверх лимита
+ * не считаются на месте, и счётчик догоняет статистику при ближайшей сверке.
+ */
+@Slf4j
+@Component
+public class EventViewsCache {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String EVENT_URI_PREFIX = "/events/";
+
+    private final StatClient statClient;
+    private final Cache<Long, ViewEntry> cache;
+    private final int reconcileBatchSize;
+    private final int maxIpsPerEvent;
+    // События с просмотрами после последнего переноса в events.views, см. EventViewsSync
+    private final Set<Long> viewed = ConcurrentHashMap.newKeySet();
+
+    public EventViewsCache(StatClient statClient,
+                           @Value("${views-cache.ttl:10m}") Duration ttl,
+                           @Value("${views-cache.max-size:10000}") long maxSize,
+                           @Value("${views-cache.reconcile-batch-size:200}") int reconcileBatchSize,
+                           @Value("${views-cache.max-ips-per-event:100}") int maxIpsPerEvent) {
+        this.statClient = statClient;
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.maxIpsPerEvent = maxIpsPerEvent;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Map<Long, Long> getViews(List<Event> events) {
+        Map<Long, Long> views = new HashMap<>();
+        List<Event> misses = new ArrayList<>();
+
+        for (Event event : events) {
+            ViewEntry entry = cache.getIfPresent(event.getId());
+            if (entry != null) {
+                views.put(event.getId(), entry.views.get());
+            } else {
+                misses.add(event);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, Long> loaded = loadFromStats(misses);
+            for (Event event : misses) {
+                long count = loaded.getOrDefault(event.getId(), 0L);
+                cache.put(event.getId(), new ViewEntry(event.getCreatedOn(), count));
+                views.put(event.getId(), count);
+            }
+        }
+        return views;
+    }
+
+    // Свежие значения из статистики; заодно обновляет записи кэша для этих событий
+    public Map<Long, Long> refresh(List<Event> events) {
+        Map<Long, Long> loaded = loadFromStats(events);
+        for (Event event : events) {
+            ViewEntry entry = cache.getIfPresent(event.getId());
+            if (entry != null) {
+                entry.reset(loaded.getOrDefault(event.getId(), 0L));
+            }
+        }
+        return loaded;
+    }
+
+    // Оптимистичный учёт просмотра до того, как хит дойдёт до сервиса статистики
+    public void recordView(Long eventId, String ip) {
+        viewed.add(eventId);
+        ViewEntry entry = cache.getIfPresent(eventId);
+        if (entry != null && entry.addIp(ip, maxIpsPerEvent)) {
+            entry.views.incrementAndGet();
+        }
+    }
+
+    // Забирает накопленные id; вызывающий возвращает их через markViewed, если перенос не удался
+    public Set<Long> drainViewed() {
+        Set<Long> drained = new HashSet<>();
+        for (Long eventId : viewed) {
+            if (viewed.remove(eventId)) {
+                drained.add(eventId);
+            }
+        }
+        return drained;
+    }
+
+    public void markViewed(Collection<Long> eventIds) {
+        viewed.addAll(eventIds);
+    }
+
+    // Сверка закэшированных значений со статистикой; срок жизни записей при этом не продлевается
+    @Scheduled(fixedDelayString = "${views-cache.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        List<Long> ids = new ArrayList<>(cache.asMap().keySet());
+        for (int from = 0; from < ids.size(); from += reconcileBatchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + reconcileBatchSize));
+            try {
+                reconcileChunk(chunk);
+            } catch (Exception e) {
+                log.warn("Не удалось сверить просмотры {} событий со статистикой: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void reconcileChunk(List<Long> ids) {
+        Map<Long, LocalDateTime> createdOn = new HashMap<>();
+        for (Long id : ids) {
+            ViewEntry entry = cache.getIfPresent(id);
+            if (entry != null) {
+                createdOn.put(id, entry.createdOn);
+            }
+        }
+        if (createdOn.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> loaded = fetchViews(createdOn);
+        for (Long id : createdOn.keySet()) {
+            ViewEntry entry = cache.getIfPresent(id);
+            if (entry != null) {
+                entry.reset(loaded.getOrDefault(id, 0L));
+            }
+        }
+    }
+
+    private Map<Long, Long> loadFromStats(List<Event> events) {
+        Map<Long, LocalDateTime> createdOn = new HashMap<>();
+        events.forEach(event -> createdOn.put(event.getId(), event.getCreatedOn()));
+        return fetchViews(createdOn);
+    }
+
+    private Map<Long, Long> fetchViews(Map<Long, LocalDateTime> createdOn) {
+        List<String> uris = createdOn.keySet()
+                .stream()
+                .map(id -> EVENT_URI_PREFIX + id)
+                .toList();
+
+        LocalDateTime startDate = createdOn.values()
+                .stream()
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+
+        String start = startDate.format(FORMATTER);
+        String end = LocalDateTime.now().format(FORMATTER);
+
+        Map<Long, Long> views = new HashMap<>();
+        for (ViewStatsDto stats : statClient.getStats(start, end, uris, true)) {
+            views.put(Long.parseLong(stats.getUri().substring(EVENT_URI_PREFIX.length())), stats.getHits());
+        }
+        return views;
+    }
+
+    private static final class ViewEntry {
+        private final LocalDateTime createdOn;
+        private final AtomicLong views;
+        // ip, уже учтённые в этой записи: сверка заменяет только базовое значение, а набор сохраняется,
+        // иначе повторный визит того же ip после сверки был бы засчитан ещё раз
+        private final Set<String> ips = ConcurrentHashMap.newKeySet();
+
+        private ViewEntry(LocalDateTime createdOn, long views) {
+            this.createdOn = createdOn;
+            this.views = new AtomicLong(views);
+        }
+
+        private void reset(long views) {
+            this.views.set(views);
+        }
+
+        // Проверка размера и вставка не атомарны, поэтому лимит может быть превышен на число параллельных вызовов
+        private boolean addIp(String ip, int maxIps) {
+            return ips.size() < maxIps && ips.add(ip);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.enums.EventState;
+import ru.practicum.model.Event;
+import ru.practicum.repository.EventRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Переносит число просмотров опубликованных событий из статистики в колонку events.views,
+ * чтобы публичный поиск сортировал по просмотрам в самом запросе.
+ * По расписанию обновляются только события, которые просматривали через этот экземпляр;
+ * все опубликованные события проходятся один раз при старте, чтобы подобрать просмотры,
+ * накопленные экземплярами до перезапуска.
+ */
+@Slf4j
+@Component
+public class EventViewsSync {
+
+    private final EventRepository eventRepository;
+    private final EventViewsCache viewsCache;
+    private final int batchSize;
+
+    // Хит доходит до статистики с задержкой, поэтому событие обновляется ещё и в следующем проходе;
+    // поле читает и меняет только sync, а запуски по расписанию не пересекаются
+    private Set<Long> previouslyViewed = Set.of();
+
+    public EventViewsSync(EventRepository eventRepository,
+                          EventViewsCache viewsCache,
+                          @Value("${views-sync.batch-size:200}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.viewsCache = viewsCache;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${views-sync.interval-ms:300000}")
+    public void sync() {
+        Set<Long> viewed = viewsCache.drainViewed();
+        Set<Long> ids = new HashSet<>(viewed);
+        ids.addAll(previouslyViewed);
+        previouslyViewed = viewed;
+
+        List<Long> pending = new ArrayList<>(ids);
+        int updated = 0;
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Long> chunk = pending.subList(from, Math.min(pending.size(), from + batchSize));
+            try {
+                List<Event> events = eventRepository.findAllById(chunk)
+                        .stream()
+                        .filter(event -> event.getState() == EventState.PUBLISHED)
+                        .toList();
+                updated += syncBatch(events);
+            } catch (Exception e) {
+                log.warn("Не удалось обновить просмотры {} событий: {}", chunk.size(), e.getMessage());
+                viewsCache.markViewed(pending.subList(from, pending.size()));
+                break;
+            }
+        }
+
+        log.debug("Обновлено число просмотров у {} из {} просмотренных событий", updated, pending.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncAll() {
+        long lastId = 0;
+        int updated = 0;
+
+        while (true) {
+            List<Event> events = eventRepository
+                    .findByStateAndIdGreaterThanOrderById(EventState.PUBLISHED, lastId, Limit.of(batchSize));
+            if (events.isEmpty()) {
+                break;
+            }
+
+            try {
+                updated += syncBatch(events);
+            } catch (Exception e) {
+                log.warn("Не удалось обновить просмотры событий после id {}: {}", lastId, e.getMessage());
+                return;
+            }
+            lastId = events.getLast().getId();
+        }
+
+        log.info("Начальная синхронизация: обновлено число просмотров у {} событий", updated);
+    }
+
+    private int syncBatch(List<Event> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> views = viewsCache.refresh(events);
+        Map<Long, Long> changed = new HashMap<>();
+        for (Event event : events) {
+            long current = views.getOrDefault(event.getId(), 0L);
+            if (current != event.getViews()) {
+                changed.put(event.getId(), current);
+            }
+        }
+        return eventRepository.updateViews(changed);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.client.InternalUserFeignClient;
+import ru.practicum.dto.UserShortDto;
+import ru.practicum.model.Event;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Короткоживущий кэш имён инициаторов событий. Промахи по всей странице
+ * дочитываются из user-service одним пакетным запросом.
+ */
+@Component
+public class InitiatorCache {
+
+    private final InternalUserFeignClient userClient;
+    private final Cache<Long, UserShortDto> cache;
+
+    public InitiatorCache(InternalUserFeignClient userClient,
+                          @Value("${initiator-cache.ttl:1m}") Duration ttl,
+                          @Value("${initiator-cache.max-size:10000}") long maxSize) {
+        this.userClient = userClient;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    // Для пользователей, которых не удалось получить, имя остаётся пустым и в кэш не попадает
+    public Map<Long, UserShortDto> getInitiators(List<Event> events) {
+        Map<Long, UserShortDto> initiators = new HashMap<>();
+        Set<Long> misses = new HashSet<>();
+
+        for (Event event : events) {
+            Long initiatorId = event.getInitiatorId();
+            UserShortDto initiator = cache.getIfPresent(initiatorId);
+            if (initiator != null) {
+                initiators.put(initiatorId, initiator);
+            } else {
+                misses.add(initiatorId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (UserShortDto user : userClient.getShortUsers(misses)) {
+                cache.put(user.getId(), user);
+                initiators.put(user.getId(), user);
+            }
+            misses.forEach(id -> initiators.putIfAbsent(id, new UserShortDto(id, null)));
+        }
+        return initiators;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Функция ранжирования полнотекстового поиска PostgreSQL для JPQL/QueryDSL (сортировка RELEVANCE).
+ * Отбор по тексту — поиск подстроки, поэтому событие, где текст найден только внутри слова,
+ * получает нулевой ранг и идёт после совпадений по целым словам. Конфигурация 'simple' — без стемминга,
+ * тексты событий бывают и на русском, и на английском.
+ */
+public class FullTextSearchFunctions implements FunctionContributor {
+
+    public static final String RANK = "fts_rank";
+
+    private static final String DOCUMENT = "to_tsvector('simple', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+    private static final String QUERY = "plainto_tsquery('simple', ?3)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(RANK,
+                "ts_rank(" + DOCUMENT + ", " + QUERY + ")",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -1,17 +1,50 @@
 package ru.practicum.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.practicum.ewm.client.HitBufferSettings;
+import ru.practicum.ewm.client.HitOverflowPolicy;
 import ru.practicum.ewm.client.StatClient;
 
+import java.time.Duration;
+
 @Configuration
 public class StatClientConfig {
 
     @Bean
     public StatClient statClient(DiscoveryClient discoveryClient,
-                                 @Value("${discovery.services.stats-server-id}") String statsServerId) {
-        return new StatClient(discoveryClient, statsServerId);
+                                 @Value("${discovery.services.stats-server-id}") String statsServerId,
+                                 @Value("${stats-client.hits.capacity:10000}") int capacity,
+                                 @Value("${stats-client.hits.batch-size:500}") int batchSize,
+                                 @Value("${stats-client.hits.flush-interval:1s}") Duration flushInterval,
+                                 @Value("${stats-client.hits.overflow-policy:DROP_OLDEST}")
+                                 HitOverflowPolicy overflowPolicy,
+                                 @Value("${stats-client.discovery.refresh-interval:30s}")
+                                 Duration discoveryRefreshInterval,
+                                 MeterRegistry registry) {
+        HitBufferSettings settings = new HitBufferSettings(capacity, batchSize, flushInterval, overflowPolicy);
+        StatClient statClient = new StatClient(discoveryClient, statsServerId, settings, discoveryRefreshInterval);
+        registerHitMetrics(statClient, registry);
+        return statClient;
+    }
+
+    private void registerHitMetrics(StatClient statClient, MeterRegistry registry) {
+        FunctionCounter.builder("stats.client.hits.queued", statClient, StatClient::getQueuedHits)
+                .description("Хиты, поставленные в очередь на отправку")
+                .register(registry);
+        FunctionCounter.builder("stats.client.hits.flushed", statClient, StatClient::getFlushedHits)
+                .description("Хиты, доставленные в сервис статистики")
+                .register(registry);
+        FunctionCounter.builder("stats.client.hits.dropped", statClient, StatClient::getDroppedHits)
+                .description("Хиты, потерянные из-за переполнения очереди или ошибки отправки")
+                .register(registry);
+        Gauge.builder("stats.client.hits.pending", statClient, StatClient::getPendingHits)
+                .description("Хиты, ожидающие отправки")
+                .register(registry);
     }
-}
\ No newline at end of file
+}
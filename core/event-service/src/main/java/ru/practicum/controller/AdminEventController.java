@@ -23,7 +23,7 @@ public class AdminEventController {
     @GetMapping
     public ResponseEntity<List<EventFullDto>> getEvents(@ModelAttribute EventParamsAdmin params) {
         log.info("AdminEventController - Get events for {}", params);
-        return ResponseEntity.ok(eventService.getEventsByAdmin(params));
+        return eventService.getEventsByAdmin(params).toResponse();
     }
 
     @PatchMapping("/{eventId}")
@@ -5,11 +5,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.dto.ConfirmedRequestsChangeDto;
 import ru.practicum.dto.EventFullDto;
 import ru.practicum.service.EventService;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -23,4 +28,11 @@ public class InternalEventController {
         log.info("Получение события по id = {}", eventId);
         return ResponseEntity.ok(eventService.getEventByEventId(eventId));
     }
+
+    @PostMapping("/confirmed-requests")
+    public ResponseEntity<Void> applyConfirmedRequestsChanges(@RequestBody List<ConfirmedRequestsChangeDto> changes) {
+        log.info("Применение {} изменений числа подтверждённых заявок", changes.size());
+        eventService.applyConfirmedRequestsChanges(changes);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
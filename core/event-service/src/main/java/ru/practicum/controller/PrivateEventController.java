@@ -22,7 +22,7 @@ public class PrivateEventController {
     @GetMapping
     public ResponseEntity<List<EventShortDto>> getAll(@PathVariable Long userId, @Valid UserParamsAdmin params) {
         log.info("PrivateEventController - getAll");
-        return ResponseEntity.ok(eventService.getUserEvents(userId, params));
+        return eventService.getUserEvents(userId, params).toResponse();
     }
 
     @PostMapping
@@ -24,7 +24,7 @@ public class PublicEventController {
     public ResponseEntity<List<EventShortDto>> getEvents(@ModelAttribute EventParamsPublic params,
                                                          HttpServletRequest request) {
         log.info("PublicEventController - Get public events. params: {}", params);
-        return ResponseEntity.ok(eventService.getPublicEvents(params, request));
+        return eventService.getPublicEvents(params, request).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,89 @@
+package ru.practicum.enrichment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.cache.EventViewsCache;
+import ru.practicum.cache.InitiatorCache;
+import ru.practicum.client.InternalRequestFeignClient;
+import ru.practicum.dto.UserShortDto;
+import ru.practicum.model.Event;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Параллельно запрашивает просмотры (stats-server), число подтверждённых заявок (request-service)
+ * и инициаторов (user-service) на виртуальных потоках. У каждого вызова свой дедлайн:
+ * медленный или упавший сервис даёт значения по умолчанию, а не задерживает ответ.
+ */
+@Slf4j
+@Component
+public class EventEnricher {
+
+    private final EventViewsCache viewsCache;
+    private final InitiatorCache initiatorCache;
+    private final InternalRequestFeignClient requestClient;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public EventEnricher(EventViewsCache viewsCache,
+                         InitiatorCache initiatorCache,
+                         InternalRequestFeignClient requestClient,
+                         @Value("${enrichment.timeout:2s}") Duration timeout) {
+        this.viewsCache = viewsCache;
+        this.initiatorCache = initiatorCache;
+        this.requestClient = requestClient;
+        this.timeout = timeout;
+    }
+
+    public EventExtras enrich(List<Event> events) {
+        return enrich(events, true, true);
+    }
+
+    // Публичные выдачи берут подтверждённые заявки (а при сортировке по просмотрам и просмотры) из колонок событий
+    public EventExtras enrich(List<Event> events, boolean withViews, boolean withConfirmedRequests) {
+        if (events.isEmpty()) {
+            return new EventExtras(Map.of(), Map.of(), Map.of());
+        }
+
+        CompletableFuture<Map<Long, Long>> views = withViews
+                ? supply("views", () -> viewsCache.getViews(events))
+                : CompletableFuture.completedFuture(Map.of());
+        CompletableFuture<Map<Long, Long>> confirmed = withConfirmedRequests
+                ? supply("confirmed requests", () -> getConfirmedRequests(events))
+                : CompletableFuture.completedFuture(Map.of());
+        CompletableFuture<Map<Long, UserShortDto>> initiators = supply("initiators", () -> initiatorCache.getInitiators(events));
+
+        return new EventExtras(views.join(), confirmed.join(), initiators.join());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Map<Long, Long> getConfirmedRequests(List<Event> events) {
+        return requestClient.getConfirmedCounts(events
+                .stream()
+                .map(Event::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    private <K, V> CompletableFuture<Map<K, V>> supply(String name, Supplier<Map<K, V>> call) {
+        return CompletableFuture.supplyAsync(call, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Не удалось получить {} за {}: {}", name, timeout, e.getMessage());
+                    return Map.of();
+                });
+    }
+}
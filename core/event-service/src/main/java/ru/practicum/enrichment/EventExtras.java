@@ -0,0 +1,28 @@
+package ru.practicum.enrichment;
+
+import ru.practicum.dto.UserShortDto;
+import ru.practicum.model.Event;
+
+import java.util.Map;
+
+/**
+ * Данные из других сервисов для страницы событий. Значения, которые не удалось получить
+ * вовремя, заменяются нулями и пустым именем инициатора.
+ */
+public record EventExtras(Map<Long, Long> views,
+                          Map<Long, Long> confirmedRequests,
+                          Map<Long, UserShortDto> initiators) {
+
+    public long views(Event event) {
+        return views.getOrDefault(event.getId(), 0L);
+    }
+
+    public long confirmedRequests(Event event) {
+        return confirmedRequests.getOrDefault(event.getId(), 0L);
+    }
+
+    public UserShortDto initiator(Event event) {
+        UserShortDto initiator = initiators.get(event.getInitiatorId());
+        return initiator != null ? initiator : new UserShortDto(event.getInitiatorId(), null);
+    }
+}
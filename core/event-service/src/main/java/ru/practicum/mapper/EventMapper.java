@@ -25,27 +25,29 @@ public class EventMapper {
                 .build();
     }
 
-    public static EventShortDto toShortDto(Event event, long confirmed, long views) {
+    public static EventShortDto toShortDto(Event event, CategoryDto category, UserShortDto initiator,
+                                           long confirmed, long views) {
         return EventShortDto.builder()
                 .id(event.getId())
                 .title(event.getTitle())
                 .annotation(event.getAnnotation())
-                .category(new CategoryDto(event.getCategory().getId(), event.getCategory().getName()))
+                .category(category)
                 .paid(event.isPaid())
                 .eventDate(event.getEventDate())
-                .initiator(new UserShortDto(event.getInitiatorId(), null))
+                .initiator(initiator)
                 .confirmedRequests(confirmed)
                 .views(views)
                 .build();
     }
 
-    public static EventFullDto entityToFullDto(Event event, long confirmed, long views) {
+    public static EventFullDto entityToFullDto(Event event, CategoryDto category, UserShortDto initiator,
+                                               long confirmed, long views) {
         return EventFullDto.builder()
                 .id(event.getId())
                 .title(event.getTitle())
                 .annotation(event.getAnnotation())
                 .description(event.getDescription())
-                .category(new CategoryDto(event.getCategory().getId(), event.getCategory().getName()))
+                .category(category)
                 .paid(event.isPaid())
                 .eventDate(event.getEventDate())
                 .createdOn(event.getCreatedOn())
@@ -54,27 +56,8 @@ public class EventMapper {
                 .requestModeration(event.isRequestModeration())
                 .state(event.getState())
                 .location(new LocationDto(event.getLocation().getLat(), event.getLocation().getLon()))
-                .initiator(new UserShortDto(event.getInitiatorId(), null))
-                .confirmedRequests(confirmed)
-                .views(views)
-                .build();
-    }
-
-    public static EventShortDto toEventShortDtoFromEvent(Event event) {
-        CategoryDto category = new CategoryDto(event.getCategory().getId(), "Category Name");
-        UserShortDto initiator = new UserShortDto(event.getInitiatorId(), "User Name");
-        long confirmedRequests = 0L;
-        long views = 0L;
-
-        return EventShortDto.builder()
-                .id(event.getId())
-                .annotation(event.getAnnotation())
-                .category(category)
-                .confirmedRequests(confirmedRequests)
-                .eventDate(event.getEventDate())
                 .initiator(initiator)
-                .paid(event.isPaid())
-                .title(event.getTitle())
+                .confirmedRequests(confirmed)
                 .views(views)
                 .build();
     }
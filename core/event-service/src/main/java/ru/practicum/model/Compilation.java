@@ -21,7 +21,7 @@ public class Compilation {
     @Column(nullable = false, unique = true)
 
     private String title;
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "compilation_events",
             joinColumns = @JoinColumn(name = "compilation_id"),
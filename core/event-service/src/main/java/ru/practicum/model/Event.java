@@ -46,6 +46,15 @@ public class Event {
     @Column(name = "request_moderation")
     private boolean requestModeration;
 
+    // Счётчик ведётся только изменениями из request-service, сохранение события его не перезаписывает
+    @Column(name = "confirmed_requests", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long confirmedRequests;
+
+    // Копия числа просмотров из статистики для сортировки в запросе; обновляется EventViewsSync
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long views;
+
     @Enumerated(EnumType.STRING)
     private EventState state;
 
@@ -55,7 +64,9 @@ public class Event {
     @Column(name = "initiator_id")
     private Long initiatorId;
 
-    @ManyToOne
+    // Название категории берётся из CategoryCache, из события нужен только category_id
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
+    @ToString.Exclude
     private Category category;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package ru.practicum.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Уже применённое изменение числа подтверждённых заявок; повторная доставка того же изменения пропускается
+@Entity
+@Table(name = "processed_request_changes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedRequestChange {
+
+    @Id
+    @Column(name = "change_id")
+    private Long changeId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
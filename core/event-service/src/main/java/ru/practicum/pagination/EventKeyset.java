@@ -0,0 +1,101 @@
+package ru.practicum.pagination;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.model.Event;
+import ru.practicum.model.QEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Порядок списка событий для постраничного чтения по курсору.
+ * Курсор — непрозрачная строка с порядком, ключом сортировки и id последнего события страницы;
+ * следующая страница читается условием «после курсора» по индексу, без OFFSET.
+ */
+public enum EventKeyset {
+
+    ID {
+        @Override
+        public List<OrderSpecifier<?>> orderBy() {
+            return List.of(EVENT.id.asc());
+        }
+
+        @Override
+        Predicate after(String key, long id) {
+            return EVENT.id.gt(id);
+        }
+
+        @Override
+        String keyOf(Event event) {
+            return "";
+        }
+    },
+
+    EVENT_DATE {
+        @Override
+        public List<OrderSpecifier<?>> orderBy() {
+            return List.of(EVENT.eventDate.asc(), EVENT.id.asc());
+        }
+
+        @Override
+        Predicate after(String key, long id) {
+            LocalDateTime eventDate = LocalDateTime.parse(key);
+            return EVENT.eventDate.gt(eventDate).or(EVENT.eventDate.eq(eventDate).and(EVENT.id.gt(id)));
+        }
+
+        @Override
+        String keyOf(Event event) {
+            return event.getEventDate().toString();
+        }
+    },
+
+    VIEWS {
+        @Override
+        public List<OrderSpecifier<?>> orderBy() {
+            return List.of(EVENT.views.desc(), EVENT.id.asc());
+        }
+
+        @Override
+        Predicate after(String key, long id) {
+            long views = Long.parseLong(key);
+            return EVENT.views.lt(views).or(EVENT.views.eq(views).and(EVENT.id.gt(id)));
+        }
+
+        @Override
+        String keyOf(Event event) {
+            return String.valueOf(event.getViews());
+        }
+    };
+
+    private static final QEvent EVENT = QEvent.event;
+    private static final String SEPARATOR = "|";
+
+    public abstract List<OrderSpecifier<?>> orderBy();
+
+    abstract Predicate after(String key, long id);
+
+    abstract String keyOf(Event event);
+
+    public Predicate after(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|", -1);
+            if (parts.length != 3 || !name().equals(parts[0])) {
+                throw new ValidationException("The cursor does not match the requested sort: " + cursor);
+            }
+            return after(parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String cursorOf(Event event) {
+        String value = name() + SEPARATOR + keyOf(event) + SEPARATOR + event.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,11 +1,17 @@
 package ru.practicum.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.model.Category;
 
+import java.util.List;
+
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     boolean existsByName(String name);
 
     boolean existsByNameAndIdNot(String name, Long catId);
+
+    // Список вместо Page: страница без дополнительного count-запроса
+    List<Category> findAllBy(Pageable pageable);
 }
\ No newline at end of file
@@ -1,22 +1,30 @@
 package ru.practicum.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import ru.practicum.model.Compilation;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
 
-    @Query("SELECT c FROM Compilation c LEFT JOIN FETCH c.events WHERE c.pinned = :pinned")
-    Page<Compilation> findAllByPinned(@Param("pinned") boolean pinned, Pageable pageable);
+    // Страница подборок выбирается по id в SQL, события догружаются отдельным запросом по этим id
+    @Query("SELECT c.id FROM Compilation c WHERE c.pinned = :pinned ORDER BY c.id")
+    List<Long> findIdsByPinned(boolean pinned, Pageable pageable);
 
-    @Query("SELECT c FROM Compilation c LEFT JOIN FETCH c.events")
-    Page<Compilation> findAll(Pageable pageable);
+    @Query("SELECT c.id FROM Compilation c ORDER BY c.id")
+    List<Long> findIds(Pageable pageable);
+
+    @Query("SELECT DISTINCT c FROM Compilation c LEFT JOIN FETCH c.events WHERE c.id IN :ids ORDER BY c.id")
+    List<Compilation> findAllWithEventsByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "events")
+    Optional<Compilation> findWithEventsById(Long id);
 
     Optional<Compilation> findByTitle(String title);
-}
\ No newline at end of file
+}
@@ -1,8 +1,28 @@
 package ru.practicum.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import ru.practicum.enums.EventState;
 import ru.practicum.model.Event;
 
-public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event> {
+import java.util.List;
+
+public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event>,
+        EventRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE Event AS e SET e.confirmedRequests = e.confirmedRequests + :delta WHERE e.id = :eventId")
+    int addConfirmedRequests(Long eventId, long delta);
+
+    @Modifying
+    @Query("UPDATE Event AS e SET e.confirmedRequests = :confirmed WHERE e.id = :eventId")
+    int setConfirmedRequests(Long eventId, long confirmed);
+
+    // Проверка через LIMIT 1 по индексу category_id, без загрузки событий категории
+    boolean existsByCategoryId(Long categoryId);
+
+    List<Event> findByStateAndIdGreaterThanOrderById(EventState state, Long id, Limit limit);
 }
\ No newline at end of file
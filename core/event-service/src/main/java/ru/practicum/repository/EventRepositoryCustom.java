@@ -0,0 +1,17 @@
+package ru.practicum.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import ru.practicum.model.Event;
+
+import java.util.List;
+import java.util.Map;
+
+public interface EventRepositoryCustom {
+
+    // Срез без подсчёта общего числа строк, в отличие от findAll(Predicate, Pageable)
+    List<Event> findSlice(Predicate where, List<OrderSpecifier<?>> order, long offset, int limit);
+
+    // Новое число просмотров по id события; возвращает число изменённых строк
+    int updateViews(Map<Long, Long> views);
+}
@@ -0,0 +1,54 @@
+package ru.practicum.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.model.Event;
+import ru.practicum.model.QEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Event> findSlice(Predicate where, List<OrderSpecifier<?>> order, long offset, int limit) {
+        return queryFactory.selectFrom(QEvent.event)
+                .where(where)
+                .orderBy(order.toArray(OrderSpecifier[]::new))
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    // Одним UPDATE ... FROM (VALUES ...) вместо отдельного запроса на каждое событие
+    @Override
+    @Transactional
+    public int updateViews(Map<Long, Long> views) {
+        if (views.isEmpty()) {
+            return 0;
+        }
+
+        StringJoiner values = new StringJoiner(", ");
+        views.forEach((eventId, count) -> values.add("(?, ?)"));
+        Query query = entityManager.createNativeQuery("UPDATE events AS e SET views = v.views"
+                + " FROM (VALUES " + values + ") AS v(id, views)"
+                + " WHERE e.id = v.id AND e.views <> v.views");
+
+        int position = 1;
+        for (Map.Entry<Long, Long> entry : views.entrySet()) {
+            query.setParameter(position++, entry.getKey());
+            query.setParameter(position++, entry.getValue());
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.model.ProcessedRequestChange;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedRequestChangeRepository extends JpaRepository<ProcessedRequestChange, Long> {
+
+    // 1 — изменение отмечено сейчас, 0 — оно уже было применено раньше
+    @Modifying
+    @Query(value = """
+            INSERT INTO processed_request_changes (change_id, processed_at)
+            VALUES (:changeId, now())
+            ON CONFLICT (change_id) DO NOTHING
+            """, nativeQuery = true)
+    int markProcessed(Long changeId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessedRequestChange AS c WHERE c.processedAt < :before")
+    int deleteProcessedBefore(LocalDateTime before);
+}
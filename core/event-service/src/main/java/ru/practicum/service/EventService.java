@@ -5,12 +5,13 @@ import ru.practicum.dto.*;
 import ru.practicum.dto.params.EventParamsAdmin;
 import ru.practicum.dto.params.EventParamsPublic;
 import ru.practicum.dto.params.UserParamsAdmin;
+import ru.practicum.pagination.CursorPage;
 
 import java.util.List;
 
 public interface EventService {
 
-    List<EventShortDto> getUserEvents(Long userId, UserParamsAdmin params);
+    CursorPage<EventShortDto> getUserEvents(Long userId, UserParamsAdmin params);
 
     EventFullDto getUserEventById(Long userId, Long eventId);
 
@@ -18,11 +19,11 @@ public interface EventService {
 
     EventFullDto updateUserEvent(Long userId, Long eventId, UpdateEventUserRequest dto);
 
-    List<EventShortDto> getPublicEvents(EventParamsPublic params, HttpServletRequest request);
+    CursorPage<EventShortDto> getPublicEvents(EventParamsPublic params, HttpServletRequest request);
 
     EventFullDto getEventById(Long eventId, HttpServletRequest request);
 
-    List<EventFullDto> getEventsByAdmin(EventParamsAdmin params);
+    CursorPage<EventFullDto> getEventsByAdmin(EventParamsAdmin params);
 
     EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest dto);
 
@@ -32,4 +33,6 @@ public interface EventService {
     List<ParticipationRequestDto> getAllParticipationRequestsByUserIdAndEventId(Long userId, Long eventId);
 
     EventFullDto getEventByEventId(Long eventId);
+
+    void applyConfirmedRequestsChanges(List<ConfirmedRequestsChangeDto> changes);
 }
\ No newline at end of file
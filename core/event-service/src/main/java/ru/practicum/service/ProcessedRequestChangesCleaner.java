@@ -0,0 +1,37 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.repository.ProcessedRequestChangeRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Удаляет отметки применённых изменений числа подтверждённых заявок старше срока хранения.
+ * Повторная доставка из outbox request-service возможна только до удаления строки там,
+ * то есть в пределах секунд или минут, поэтому отметки дольше хранить не нужно.
+ */
+@Slf4j
+@Component
+public class ProcessedRequestChangesCleaner {
+
+    private final ProcessedRequestChangeRepository processedChangeRepository;
+    private final Duration retention;
+
+    public ProcessedRequestChangesCleaner(ProcessedRequestChangeRepository processedChangeRepository,
+                                          @Value("${request-changes.retention:7d}") Duration retention) {
+        this.processedChangeRepository = processedChangeRepository;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${request-changes.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = processedChangeRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Удалено {} отметок применённых изменений подтверждённых заявок", deleted);
+        }
+    }
+}
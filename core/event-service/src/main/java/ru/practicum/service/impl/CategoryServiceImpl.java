@@ -1,18 +1,15 @@
 package ru.practicum.service.impl;
 
-import com.querydsl.core.types.dsl.BooleanExpression;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CategoryCache;
 import ru.practicum.dto.CategoryDto;
 import ru.practicum.dto.NewCategoryDto;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.mapper.CategoryMapper;
 import ru.practicum.model.Category;
-import ru.practicum.model.Event;
-import ru.practicum.model.QEvent;
 import ru.practicum.repository.CategoryRepository;
 import ru.practicum.repository.EventRepository;
 import ru.practicum.service.CategoryService;
@@ -26,6 +23,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final CategoryCache categoryCache;
 
 
     @Override
@@ -39,7 +37,9 @@ public class CategoryServiceImpl implements CategoryService {
                 .name(dto.getName())
                 .build();
 
-        return CategoryMapper.toCategoryDto(categoryRepository.save(category));
+        CategoryDto saved = CategoryMapper.toCategoryDto(categoryRepository.save(category));
+        categoryCache.put(saved);
+        return saved;
     }
 
     @Override
@@ -54,38 +54,32 @@ public class CategoryServiceImpl implements CategoryService {
         }
         category.setName(newName);
 
-        return CategoryMapper.toCategoryDto(categoryRepository.save(category));
+        CategoryDto saved = CategoryMapper.toCategoryDto(categoryRepository.save(category));
+        categoryCache.put(saved);
+        return saved;
     }
 
     @Override
     @Transactional
     public void deleteCategory(Long catId) {
-        getCategoryById(catId);
-
-        BooleanExpression byCategoryId = QEvent.event.category.id.eq(catId);
-        List<Event> eventsByCategory = (List<Event>) eventRepository.findAll(byCategoryId);
+        Category category = getCategoryById(catId);
 
-        if (eventsByCategory.isEmpty()) {
-            categoryRepository.deleteById(catId);
-        } else {
+        if (eventRepository.existsByCategoryId(catId)) {
             throw new ConflictException("The category is not empty");
         }
+
+        categoryRepository.delete(category);
+        categoryCache.evict(catId);
     }
 
     @Override
     public List<CategoryDto> getAll(int from, int size) {
-        List<Category> categories = categoryRepository
-                .findAll(PageRequest.of(from / size, size))
-                .getContent();
-
-        return CategoryMapper.toCategoryDtoList(categories);
+        return categoryCache.getPage(from, size);
     }
 
     @Override
     public CategoryDto getById(Long catId) {
-        return categoryRepository.findById(catId)
-                .map(CategoryMapper::toCategoryDto)
-                .orElseThrow(() -> new NotFoundException("The category with id: " + catId + " not found!"));
+        return categoryCache.get(catId);
     }
 
     private Category getCategoryById(Long catId) {
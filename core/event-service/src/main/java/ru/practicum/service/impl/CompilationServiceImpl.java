@@ -2,16 +2,18 @@ package ru.practicum.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.cache.CategoryCache;
 import ru.practicum.dto.CompilationDto;
 import ru.practicum.dto.EventShortDto;
 import ru.practicum.dto.NewCompilationDto;
 import ru.practicum.dto.UpdateCompilationRequest;
 import ru.practicum.dto.params.CompilationParamsPublic;
+import ru.practicum.enrichment.EventEnricher;
+import ru.practicum.enrichment.EventExtras;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.mapper.CompilationMapper;
@@ -36,44 +38,31 @@ public class CompilationServiceImpl implements CompilationService {
 
     final CompilationRepository compilationRepository;
     final EventRepository eventRepository;
+    final CategoryCache categoryCache;
+    final EventEnricher enricher;
 
     @Override
     public List<CompilationDto> getCompilations(CompilationParamsPublic params) {
         Pageable pageable = PageRequest.of(params.getFrom() / params.getSize(), params.getSize());
 
-        Page<Compilation> compilationsPage;
-        if (params.getPinned() != null) {
-            compilationsPage = compilationRepository.findAllByPinned(params.getPinned(), pageable);
-        } else {
-            compilationsPage = compilationRepository.findAll(pageable);
-        }
+        List<Long> ids = params.getPinned() != null
+                ? compilationRepository.findIdsByPinned(params.getPinned(), pageable)
+                : compilationRepository.findIds(pageable);
 
-        if (compilationsPage.isEmpty()) {
+        if (ids.isEmpty()) {
             return List.of();
         }
 
-        return compilationsPage.getContent().stream()
-                .map(compilation -> {
-                    List<EventShortDto> eventShortDtos = compilation.getEvents().stream()
-                            .map(EventMapper::toEventShortDtoFromEvent)
-                            .collect(Collectors.toList());
-
-                    return CompilationMapper.toCompilationDtoFromCompilation(compilation, eventShortDtos);
-                })
-                .collect(Collectors.toList());
+        return toCompilationDtos(compilationRepository.findAllWithEventsByIdIn(ids));
     }
 
 
     @Override
     public CompilationDto getCompilationById(Long compId) {
-        Compilation compilation = compilationRepository.findById(compId)
+        Compilation compilation = compilationRepository.findWithEventsById(compId)
                 .orElseThrow(() -> new NotFoundException(String.format("Compilation with id=%d not found", compId)));
 
-        List<EventShortDto> eventShortDtos = compilation.getEvents().stream()
-                .map(EventMapper::toEventShortDtoFromEvent)
-                .collect(Collectors.toList());
-
-        return CompilationMapper.toCompilationDtoFromCompilation(compilation, eventShortDtos);
+        return toCompilationDtos(List.of(compilation)).getFirst();
     }
 
 
@@ -94,20 +83,17 @@ public class CompilationServiceImpl implements CompilationService {
 
         compilation = compilationRepository.save(compilation);
 
-        List<EventShortDto> eventShortDtos = compilation.getEvents().stream().map(EventMapper::toEventShortDtoFromEvent).toList();
-
-        return CompilationMapper.toCompilationDtoFromCompilation(compilation, eventShortDtos);
+        return toCompilationDtos(List.of(compilation)).getFirst();
     }
 
     @Override
     @Transactional
     public void deleteById(Long compId) {
 
-        if (!compilationRepository.existsById(compId)) {
-            throw new NotFoundException(
-                    String.format("Compilation with id=%d not found", compId));
-        }
-        compilationRepository.deleteById(compId);
+        Compilation compilation = compilationRepository.findById(compId)
+                .orElseThrow(() -> new NotFoundException(
+                        String.format("Compilation with id=%d not found", compId)));
+        compilationRepository.delete(compilation);
 
     }
 
@@ -144,9 +130,34 @@ public class CompilationServiceImpl implements CompilationService {
 
         log.info("Updated fields for Compilation with id = {} : {}", compId, updatedFieldsLog);
 
-        return CompilationMapper.toCompilationDtoFromCompilation(compilation, compilation.getEvents().stream()
-                .map(EventMapper::toEventShortDtoFromEvent)
-                .toList());
+        return toCompilationDtos(List.of(compilation)).getFirst();
+    }
+
+    // Просмотры, подтверждённые заявки и инициаторы запрашиваются одним пакетом по всем различным
+    // событиям всех подборок; если request-service не ответил вовремя, берётся счётчик из events
+    private List<CompilationDto> toCompilationDtos(List<Compilation> compilations) {
+        List<Event> events = compilations.stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .distinct()
+                .toList();
+
+        EventExtras extras = enricher.enrich(events);
+
+        return compilations.stream()
+                .map(compilation -> CompilationMapper.toCompilationDtoFromCompilation(compilation,
+                        compilation.getEvents().stream()
+                                .map(event -> toEventShortDto(event, extras))
+                                .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+    }
+
+    private EventShortDto toEventShortDto(Event event, EventExtras extras) {
+        return EventMapper.toShortDto(
+                event,
+                categoryCache.get(event.getCategory().getId()),
+                extras.initiator(event),
+                extras.confirmedRequests().getOrDefault(event.getId(), event.getConfirmedRequests()),
+                extras.views(event));
     }
 
 }
\ No newline at end of file
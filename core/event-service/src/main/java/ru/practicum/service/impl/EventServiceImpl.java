@@ -1,40 +1,45 @@
 package ru.practicum.service.impl;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.cache.CategoryCache;
+import ru.practicum.cache.EventViewsCache;
 import ru.practicum.client.InternalRequestFeignClient;
-import ru.practicum.client.InternalUserFeignClient;
+import ru.practicum.client.UserExistenceCache;
+import ru.practicum.config.FullTextSearchFunctions;
 import ru.practicum.dto.*;
 import ru.practicum.dto.params.EventParamsAdmin;
 import ru.practicum.dto.params.EventParamsPublic;
 import ru.practicum.dto.params.UserParamsAdmin;
+import ru.practicum.enrichment.EventEnricher;
+import ru.practicum.enrichment.EventExtras;
 import ru.practicum.enums.EventState;
-import ru.practicum.enums.ParticipationRequestStatus;
-import ru.practicum.enums.RequestStatus;
 import ru.practicum.ewm.client.StatClient;
 import ru.practicum.ewm.dto.EndpointHitDto;
-import ru.practicum.ewm.dto.ViewStatsDto;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
 import ru.practicum.mapper.EventMapper;
-import ru.practicum.model.Category;
 import ru.practicum.model.Event;
 import ru.practicum.model.Location;
 import ru.practicum.model.QEvent;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.pagination.EventKeyset;
 import ru.practicum.repository.CategoryRepository;
 import ru.practicum.repository.EventRepository;
+import ru.practicum.repository.ProcessedRequestChangeRepository;
 import ru.practicum.service.EventService;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -43,35 +48,41 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class EventServiceImpl implements EventService {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final ProcessedRequestChangeRepository processedChangeRepository;
     private final StatClient statClient;
-    private final InternalUserFeignClient userClient;
+    private final EventViewsCache viewsCache;
+    private final CategoryCache categoryCache;
+    private final EventEnricher enricher;
+    private final UserExistenceCache userCache;
     private final InternalRequestFeignClient requestClient;
 
     // --- PRIVATE API ---
 
     @Override
-    public List<EventShortDto> getUserEvents(Long userId, UserParamsAdmin params) {
+    public CursorPage<EventShortDto> getUserEvents(Long userId, UserParamsAdmin params) {
         int from = params.getFrom();
         int size = params.getSize();
 
-        PageRequest page = PageRequest.of(from / size, size);
         getUserById(userId);
 
         BooleanExpression byUserId = QEvent.event.initiatorId.eq(userId);
-        List<Event> events = eventRepository.findAll(byUserId, page).getContent();
+        CursorPage<Event> events = params.getCursor() != null
+                ? findAfterCursor(byUserId, EventKeyset.ID, params.getCursor(), size)
+                : findPage(byUserId, EventKeyset.ID.orderBy(), from, size);
 
-        Map<Long, Long> viewsMap = getViews(events);
-        Map<Long, Long> confrmedMap = getConfirmedRequests(events);
+        EventExtras extras = enricher.enrich(events.items());
 
-        return events
+        return events.map(items -> items
                 .stream()
-                .map(event -> EventMapper
-                        .toShortDto(event, confrmedMap.get(event.getId()), viewsMap.get(event.getId())))
-                .collect(Collectors.toList());
+                .map(event -> EventMapper.toShortDto(
+                        event,
+                        getCategory(event),
+                        extras.initiator(event),
+                        extras.confirmedRequests(event),
+                        extras.views(event)))
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -84,10 +95,14 @@ public class EventServiceImpl implements EventService {
             throw new ConflictException("User is not the owner of this event");
         }
 
-        Map<Long, Long> viewsMap = getViews(List.of(event));
-        Map<Long, Long> confrmedMap = getConfirmedRequests(List.of(event));
+        EventExtras extras = enricher.enrich(List.of(event));
 
-        return EventMapper.entityToFullDto(event, confrmedMap.get(event.getId()), viewsMap.get(event.getId()));
+        return EventMapper.entityToFullDto(
+                event,
+                getCategory(event),
+                extras.initiator(event),
+                extras.confirmedRequests(event),
+                extras.views(event));
     }
 
     @Override
@@ -95,8 +110,7 @@ public class EventServiceImpl implements EventService {
     public EventFullDto createUserEvent(Long userId, NewEventDto dto) {
         getUserById(userId);
 
-        categoryRepository.findById(dto.getCategory())
-                .orElseThrow(() -> new NotFoundException("The category with id: " + dto.getCategory() + " not found!"));
+        CategoryDto category = categoryCache.get(dto.getCategory());
 
         if (dto.getEventDate().isBefore(LocalDateTime.now()) ||
                 !dto.getEventDate().isAfter(LocalDateTime.now().plusHours(2))) {
@@ -107,7 +121,9 @@ public class EventServiceImpl implements EventService {
         Event event = EventMapper.toEntity(dto, userId);
         Event savedEvent = eventRepository.save(event);
 
-        return EventMapper.entityToFullDto(savedEvent, 0, 0);
+        UserShortDto initiator = enricher.enrich(List.of(savedEvent), false, false).initiator(savedEvent);
+
+        return EventMapper.entityToFullDto(savedEvent, category, initiator, 0, 0);
     }
 
     @Override
@@ -143,10 +159,8 @@ public class EventServiceImpl implements EventService {
         if (dto.getParticipantLimit() != null) event.setParticipantLimit(dto.getParticipantLimit());
         if (dto.getRequestModeration() != null) event.setRequestModeration(dto.getRequestModeration());
         if (dto.getCategory() != null) {
-            Category category = categoryRepository.findById(dto.getCategory())
-                    .orElseThrow(() -> new NotFoundException("The category with id: " + dto.getCategory() +
-                            " not found!"));
-            event.setCategory(category);
+            categoryCache.get(dto.getCategory());
+            event.setCategory(categoryRepository.getReferenceById(dto.getCategory()));
         }
 
         if ("SEND_TO_REVIEW".equals(dto.getStateAction())) {
@@ -155,12 +169,16 @@ public class EventServiceImpl implements EventService {
             event.setState(EventState.CANCELED);
         }
 
-        Map<Long, Long> viewsMap = getViews(List.of(event));
-        Map<Long, Long> confirmedMap = getConfirmedRequests(List.of(event));
+        EventExtras extras = enricher.enrich(List.of(event));
 
         eventRepository.save(event);
 
-        return EventMapper.entityToFullDto(event, confirmedMap.get(event.getId()), viewsMap.get(event.getId()));
+        return EventMapper.entityToFullDto(
+                event,
+                getCategory(event),
+                extras.initiator(event),
+                extras.confirmedRequests(event),
+                extras.views(event));
     }
 
     @Override
@@ -182,83 +200,18 @@ public class EventServiceImpl implements EventService {
             throw new ConflictException("User is not the owner of this event");
         }
 
-        List<Long> requestIds = requestUpdate.getRequestIds();
-        RequestStatus status = requestUpdate.getStatus();
-        int requestCount = requestIds.size();
-        int limit = event.getParticipantLimit();
-
-        List<ParticipationRequestDto> requests = requestClient.getRequestsByEventId(eventId);
-
-        long currentConfirmed = requests.stream()
-                .filter(dto -> dto.getStatus().equals(ParticipationRequestStatus.CONFIRMED))
-                .count();
-
-        if (currentConfirmed == limit) {
-            throw new ConflictException("The request limit for this event has been reached: " + event);
-        }
-
-        requests
-                .stream()
-                .filter(request -> !request.getStatus()
-                        .equals(ParticipationRequestStatus.PENDING))
-                .forEach(request -> {
-                    throw new ConflictException("The status can only be changed for requests that are in the pending " +
-                            "state. The request has the status: " + request.getStatus());
-                });
-
-        List<ParticipationRequestDto> updatedRequests = new ArrayList<>();
-        List<ParticipationRequestDto> confirmedRequests = new ArrayList<>();
-        List<ParticipationRequestDto> rejectedRequests = new ArrayList<>();
-
-        switch (status) {
-            case CONFIRMED: {
-                if (limit == 0 || !event.isRequestModeration() || currentConfirmed + requestCount <= limit) {
-                    for (ParticipationRequestDto request : requests) {
-                        request.setStatus(ParticipationRequestStatus.CONFIRMED);
-                        updatedRequests.add(request);
-                        confirmedRequests.add(request);
-                    }
-                } else if (currentConfirmed >= limit) {
-                    throw new ConflictException("The request limit for this event has been reached: " + event);
-                } else {
-                    for (ParticipationRequestDto request : requests) {
-                        if (limit > currentConfirmed) {
-                            request.setStatus(ParticipationRequestStatus.CONFIRMED);
-                            updatedRequests.add(request);
-                            confirmedRequests.add(request);
-                            currentConfirmed = currentConfirmed + 1;
-                        } else {
-                            request.setStatus(ParticipationRequestStatus.REJECTED);
-                            updatedRequests.add(request);
-                            rejectedRequests.add(request);
-                        }
-                    }
-                }
-                break;
-            }
-            case REJECTED: {
-                for (ParticipationRequestDto request : requests) {
-                    request.setStatus(ParticipationRequestStatus.REJECTED);
-                    updatedRequests.add(request);
-                    rejectedRequests.add(request);
-                }
-            }
-            break;
-        }
-
-        requestClient.saveAll(updatedRequests);
-        EventRequestStatusUpdateResult result = new EventRequestStatusUpdateResult();
-        result.setConfirmedRequests(confirmedRequests);
-        result.setRejectedRequests(rejectedRequests);
-
-        return result;
+        return requestClient.updateStatuses(RequestStatusBulkUpdateDto.builder()
+                .eventId(eventId)
+                .requestIds(requestUpdate.getRequestIds())
+                .status(requestUpdate.getStatus())
+                .participantLimit(event.getParticipantLimit())
+                .build());
     }
 
     // --- PUBLIC API ---
 
     @Override
-    public List<EventShortDto> getPublicEvents(EventParamsPublic params, HttpServletRequest request) {
-        PageRequest page = PageRequest.of(params.getFrom() / params.getSize(), params.getSize());
+    public CursorPage<EventShortDto> getPublicEvents(EventParamsPublic params, HttpServletRequest request) {
         BooleanBuilder where = new BooleanBuilder();
         QEvent event = QEvent.event;
 
@@ -279,7 +232,9 @@ public class EventServiceImpl implements EventService {
 
         where.and(event.state.in(EventState.PUBLISHED));
 
-        if (text != null && !text.isEmpty()) {
+        // Поиск подстроки без учёта регистра; выражения lower(...) покрыты триграммными GIN-индексами
+        boolean hasText = text != null && !text.isEmpty();
+        if (hasText) {
             where.and(event.annotation.lower().like("%" + text.toLowerCase() + "%")
                     .or(event.description.lower().like("%" + text.toLowerCase() + "%")));
         }
@@ -307,25 +262,38 @@ public class EventServiceImpl implements EventService {
             where.and(event.eventDate.after(LocalDateTime.now()));
         }
 
-        List<Event> events = eventRepository.findAll(where, page).getContent();
-
-        Map<Long, Long> confirmedMap = getConfirmedRequests(events);
-        Map<Long, Long> viewsMap = getViews(events);
-
         if (onlyAvailable) {
-            events = events
-                    .stream()
-                    .filter(e -> e.getParticipantLimit() > confirmedMap.getOrDefault(e.getId(), 0L))
-                    .toList();
+            where.and(event.participantLimit.gt(event.confirmedRequests));
+        }
+
+        if ("RELEVANCE".equals(sort) && !hasText) {
+            throw new ValidationException("Sorting by relevance requires a search text");
         }
 
-        List<EventShortDto> eventShorts = events
+        boolean sortByViews = "VIEWS".equals(sort);
+        List<OrderSpecifier<?>> order = "RELEVANCE".equals(sort)
+                ? List.of(Expressions.numberTemplate(Double.class,
+                                "function('" + FullTextSearchFunctions.RANK + "', {0}, {1}, {2})",
+                                event.annotation, event.description, text).desc(),
+                        event.id.asc())
+                : publicKeyset(sort).orderBy();
+
+        CursorPage<Event> events = params.getCursor() != null
+                ? findAfterCursor(where, publicKeyset(sort), params.getCursor(), params.getSize())
+                : findPage(where, order, params.getFrom(), params.getSize());
+
+        // При сортировке по просмотрам отдаём те же значения, по которым отсортирована страница
+        EventExtras extras = enricher.enrich(events.items(), !sortByViews, false);
+
+        CursorPage<EventShortDto> eventShorts = events.map(items -> items
                 .stream()
                 .map(e -> EventMapper.toShortDto(
                         e,
-                        confirmedMap.getOrDefault(e.getId(), 0L),
-                        viewsMap.getOrDefault(e.getId(), 0L)))
-                .collect(Collectors.toList());
+                        getCategory(e),
+                        extras.initiator(e),
+                        e.getConfirmedRequests(),
+                        sortByViews ? e.getViews() : extras.views(e)))
+                .collect(Collectors.toList()));
 
         statClient.sendHit(EndpointHitDto.builder()
                 .app("main-service")
@@ -334,21 +302,7 @@ public class EventServiceImpl implements EventService {
                 .timestamp(LocalDateTime.now())
                 .build());
 
-        if (sort == null) {
-            return eventShorts;
-        }
-
-        return switch (sort) {
-            case "VIEWS" -> eventShorts
-                    .stream()
-                    .sorted(Comparator.comparingLong(EventShortDto::getViews).reversed())
-                    .collect(Collectors.toList());
-            case "EVENT_DATE" -> eventShorts
-                    .stream()
-                    .sorted(Comparator.comparing(EventShortDto::getEventDate))
-                    .collect(Collectors.toList());
-            default -> eventShorts;
-        };
+        return eventShorts;
     }
 
     @Override
@@ -360,8 +314,7 @@ public class EventServiceImpl implements EventService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event is not published");
         }
 
-        Map<Long, Long> viewsMap = getViews(List.of(event));
-        Map<Long, Long> confirmedMap = getConfirmedRequests(List.of(event));
+        EventExtras extras = enricher.enrich(List.of(event), true, false);
 
         statClient.sendHit(EndpointHitDto.builder()
                 .app("main-service")
@@ -369,16 +322,20 @@ public class EventServiceImpl implements EventService {
                 .ip(request.getRemoteAddr())
                 .timestamp(LocalDateTime.now())
                 .build());
+        viewsCache.recordView(event.getId(), request.getRemoteAddr());
 
-        return EventMapper.entityToFullDto(event,
-                confirmedMap.get(event.getId()), viewsMap.get(event.getId()));
+        return EventMapper.entityToFullDto(
+                event,
+                getCategory(event),
+                extras.initiator(event),
+                event.getConfirmedRequests(),
+                extras.views(event));
     }
 
     // --- ADMIN API ---
 
     @Override
-    public List<EventFullDto> getEventsByAdmin(EventParamsAdmin params) {
-        PageRequest page = PageRequest.of(params.getFrom() / params.getSize(), params.getSize());
+    public CursorPage<EventFullDto> getEventsByAdmin(EventParamsAdmin params) {
         BooleanBuilder where = new BooleanBuilder();
         QEvent event = QEvent.event;
 
@@ -422,15 +379,21 @@ public class EventServiceImpl implements EventService {
             where.and(event.eventDate.before(rangeEnd));
         }
 
-        List<Event> events = eventRepository.findAll(where, page).getContent();
+        CursorPage<Event> events = params.getCursor() != null
+                ? findAfterCursor(where, EventKeyset.ID, params.getCursor(), params.getSize())
+                : findPage(where, EventKeyset.ID.orderBy(), params.getFrom(), params.getSize());
 
-        Map<Long, Long> viewsMap = getViews(events);
-        Map<Long, Long> confirmedMap = getConfirmedRequests(events);
+        EventExtras extras = enricher.enrich(events.items());
 
-        return events
+        return events.map(items -> items
                 .stream()
-                .map(e -> EventMapper.entityToFullDto(e, confirmedMap.get(e.getId()), viewsMap.get(e.getId())))
-                .collect(Collectors.toList());
+                .map(e -> EventMapper.entityToFullDto(
+                        e,
+                        getCategory(e),
+                        extras.initiator(e),
+                        extras.confirmedRequests(e),
+                        extras.views(e)))
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -442,9 +405,8 @@ public class EventServiceImpl implements EventService {
         if (dto.getAnnotation() != null) event.setAnnotation(dto.getAnnotation());
         if (dto.getDescription() != null) event.setDescription(dto.getDescription());
         if (dto.getCategory() != null) {
-            Category category = categoryRepository.findById(dto.getCategory())
-                    .orElseThrow(() -> new NotFoundException("Category with id: " + dto.getCategory() + " not found!"));
-            event.setCategory(category);
+            categoryCache.get(dto.getCategory());
+            event.setCategory(categoryRepository.getReferenceById(dto.getCategory()));
         }
         if (dto.getEventDate() != null) {
             LocalDateTime newEventDate = LocalDateTime.parse(dto.getEventDate().replace(" ", "T"));
@@ -477,71 +439,80 @@ public class EventServiceImpl implements EventService {
 
         Event savedEvent = eventRepository.save(event);
 
-        Map<Long, Long> viewsMap = getViews(List.of(savedEvent));
-        Map<Long, Long> confirmedMap = getConfirmedRequests(List.of(savedEvent));
+        EventExtras extras = enricher.enrich(List.of(savedEvent));
 
-        return EventMapper
-                .entityToFullDto(event, confirmedMap.get(savedEvent.getId()), viewsMap.get(savedEvent.getId()));
+        return EventMapper.entityToFullDto(
+                event,
+                getCategory(event),
+                extras.initiator(event),
+                extras.confirmedRequests(savedEvent),
+                extras.views(savedEvent));
     }
 
     @Override
     public EventFullDto getEventByEventId(Long eventId) {
         Event event = getEventById(eventId);
 
-        Map<Long, Long> viewsMap = getViews(List.of(event));
-        Map<Long, Long> confirmedMap = getConfirmedRequests(List.of(event));
+        EventExtras extras = enricher.enrich(List.of(event));
 
         return EventMapper.entityToFullDto(
                 event,
-                confirmedMap.get(event.getId()),
-                viewsMap.get(event.getId())
+                getCategory(event),
+                extras.initiator(event),
+                extras.confirmedRequests(event),
+                extras.views(event)
         );
     }
 
-    private Map<Long, Long> getViews(List<Event> events) {
-        List<String> uris = events
-                .stream()
-                .map(event -> "/events/" + event.getId())
-                .collect(Collectors.toList());
-
-        LocalDateTime startDate = events
-                .stream()
-                .map(Event::getCreatedOn)
-                .toList()
-                .stream()
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
-
-        String start = Objects.requireNonNull(startDate).format(FORMATTER);
-        String end = LocalDateTime.now().format(FORMATTER);
+    @Override
+    @Transactional
+    public void applyConfirmedRequestsChanges(List<ConfirmedRequestsChangeDto> changes) {
+        for (ConfirmedRequestsChangeDto change : changes) {
+            if (processedChangeRepository.markProcessed(change.getChangeId()) != 1) {
+                continue;
+            }
+            if (change.isAbsolute()) {
+                eventRepository.setConfirmedRequests(change.getEventId(), change.getDelta());
+            } else {
+                eventRepository.addConfirmedRequests(change.getEventId(), change.getDelta());
+            }
+        }
+    }
 
-        List<ViewStatsDto> views = statClient.getStats(start, end, uris, true);
+    // Страница from/size одним запросом, без count; смещение округляется до целой страницы, как в PageRequest
+    private CursorPage<Event> findPage(Predicate where, List<OrderSpecifier<?>> order, int from, int size) {
+        long offset = (long) (from / size) * size;
+        return new CursorPage<>(eventRepository.findSlice(where, order, offset, size), null);
+    }
 
-        Map<Long, Long> map = events
-                .stream()
-                .collect(Collectors.toMap(Event::getId, e -> 0L, (a, b) -> b));
+    // Пустой курсор — первая страница; на одну строку больше size, чтобы узнать, есть ли следующая
+    private CursorPage<Event> findAfterCursor(Predicate where, EventKeyset keyset, String cursor, int size) {
+        BooleanBuilder condition = new BooleanBuilder(where);
+        if (!cursor.isBlank()) {
+            condition.and(keyset.after(cursor));
+        }
 
-        if (!views.isEmpty()) {
-            views.forEach(v -> map.put(Long.parseLong(v.getUri().split("/", 0)[2]),
-                    v.getHits()));
+        List<Event> events = eventRepository.findSlice(condition, keyset.orderBy(), 0, size + 1);
+        if (events.size() <= size) {
+            return new CursorPage<>(events, null);
         }
 
-        return map;
+        List<Event> page = events.subList(0, size);
+        return new CursorPage<>(page, keyset.cursorOf(page.getLast()));
+    }
+
+    private EventKeyset publicKeyset(String sort) {
+        return switch (sort == null ? "" : sort) {
+            case "EVENT_DATE" -> EventKeyset.EVENT_DATE;
+            case "VIEWS" -> EventKeyset.VIEWS;
+            case "RELEVANCE" -> throw new ValidationException("Cursor pagination is not supported for sort: " + sort);
+            default -> EventKeyset.ID;
+        };
     }
 
-    private Map<Long, Long> getConfirmedRequests(List<Event> events) {
-        return events.stream()
-                .collect(Collectors.toMap(
-                        Event::getId,
-                        event -> {
-                            List<ParticipationRequestDto> requests =
-                                    requestClient.getRequestsByEventId(event.getId());
-                            return requests.stream()
-                                    .filter(r -> r.getStatus()
-                                            .equals(ParticipationRequestStatus.CONFIRMED))
-                                    .count();
-                        }
-                ));
+    // category у события ленивая: getId() не инициализирует прокси, название берётся из кэша
+    private CategoryDto getCategory(Event event) {
+        return categoryCache.get(event.getCategory().getId());
     }
 
     private Event getEventById(Long eventId) {
@@ -551,6 +522,6 @@ public class EventServiceImpl implements EventService {
     }
 
     private void getUserById(Long userId) {
-        userClient.getByUserId(userId);
+        userCache.checkExists(userId);
     }
 }
\ No newline at end of file
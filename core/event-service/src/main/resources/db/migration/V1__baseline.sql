@@ -0,0 +1,53 @@
+-- Исходная схема event-service. Базы, созданные раньше Hibernate (ddl-auto: update), уже содержат
+-- эти таблицы, поэтому миграция идемпотентна и для них ничего не меняет.
+
+-- Таблица категорий
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) UNIQUE
+);
+
+-- Таблица событий; колонки совпадают с отображением Event и Location
+CREATE TABLE IF NOT EXISTS events (
+    id BIGSERIAL PRIMARY KEY,
+    title TEXT,
+    annotation TEXT,
+    description TEXT,
+    category_id BIGINT REFERENCES categories (id),
+    event_date TIMESTAMP,
+    created_on TIMESTAMP,
+    published_on TIMESTAMP,
+    initiator_id BIGINT,
+    lat REAL,
+    lon REAL,
+    paid BOOLEAN NOT NULL,
+    participant_limit INTEGER,
+    request_moderation BOOLEAN NOT NULL,
+    confirmed_requests BIGINT NOT NULL DEFAULT 0,
+    views BIGINT NOT NULL DEFAULT 0,
+    state VARCHAR(255)
+);
+
+-- Счётчики, добавленные после первых развёртываний
+ALTER TABLE events ADD COLUMN IF NOT EXISTS confirmed_requests BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS views BIGINT NOT NULL DEFAULT 0;
+
+-- Таблица подборок событий
+CREATE TABLE IF NOT EXISTS compilations (
+    id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL UNIQUE,
+    pinned BOOLEAN NOT NULL
+);
+
+-- Связующая таблица между подборками и событиями
+CREATE TABLE IF NOT EXISTS compilation_events (
+    compilation_id BIGINT NOT NULL REFERENCES compilations (id) ON DELETE CASCADE,
+    event_id BIGINT NOT NULL REFERENCES events (id) ON DELETE CASCADE,
+    PRIMARY KEY (compilation_id, event_id)
+);
+
+-- Изменения числа подтверждённых заявок, уже применённые к events.confirmed_requests
+CREATE TABLE IF NOT EXISTS processed_request_changes (
+    change_id BIGINT PRIMARY KEY,
+    processed_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,36 @@
+-- Индексы под фильтры EventServiceImpl и CategoryServiceImpl. CONCURRENTLY не блокирует запись в events;
+-- Flyway выполняет такую миграцию вне транзакции. Если построение прервётся, невалидный индекс
+-- нужно удалить вручную: IF NOT EXISTS его не пересоздаст.
+
+-- Публичный поиск всегда фильтрует опубликованные события; предстоящие выбираются диапазоном event_date
+-- (now() в условии частичного индекса недопустим). Тот же индекс обслуживает сортировку EVENT_DATE.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_published_event_date_idx
+    ON events (event_date, id) WHERE state = 'PUBLISHED';
+
+-- Публичный поиск по категориям в диапазоне дат
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_published_category_event_date_idx
+    ON events (category_id, event_date) WHERE state = 'PUBLISHED';
+
+-- Сортировка публичного поиска по просмотрам
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_published_views_idx
+    ON events (views DESC, id) WHERE state = 'PUBLISHED';
+
+-- Полнотекстовый поиск; выражение должно совпадать с FullTextSearchFunctions
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_text_search_idx
+    ON events USING GIN (to_tsvector('simple', coalesce(annotation, '') || ' ' || coalesce(description, '')));
+
+-- События пользователя (getUserEvents, фильтр users в админском поиске) с сортировкой по id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_initiator_id_idx
+    ON events (initiator_id, id);
+
+-- Фильтр categories в админском поиске и проверка непустой категории при удалении
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_category_id_idx
+    ON events (category_id);
+
+-- Фильтр states с диапазоном дат в админском поиске
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_state_event_date_idx
+    ON events (state, event_date);
+
+-- Каскадное удаление событий из подборок
+CREATE INDEX CONCURRENTLY IF NOT EXISTS compilation_events_event_id_idx
+    ON compilation_events (event_id);
@@ -0,0 +1,4 @@
+-- Удаление отметок применённых изменений старше срока хранения (ProcessedRequestChangesCleaner).
+-- CONCURRENTLY не блокирует запись; Flyway выполняет миграцию вне транзакции.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS processed_request_changes_processed_at_idx
+    ON processed_request_changes (processed_at);
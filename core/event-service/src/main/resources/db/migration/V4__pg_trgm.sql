@@ -0,0 +1,4 @@
+-- Триграммы для подстрочного поиска по тексту событий, индексы строит V5.
+-- Отдельной миграцией, потому что CREATE EXTENSION транзакционный, а V5 выполняется вне транзакции.
+-- pg_trgm — доверенное расширение, владельцу базы прав суперпользователя не нужно.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,13 @@
+-- Публичный параметр text — поиск подстроки без учёта регистра (lower(...) LIKE '%text%').
+-- Триграммные GIN-индексы обслуживают такой LIKE, включая ведущий %, начиная с трёх символов.
+-- CONCURRENTLY не блокирует запись в events; Flyway выполняет миграцию вне транзакции,
+-- поэтому здесь только нетранзакционные операторы (расширение создаёт V4).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_annotation_trgm_idx
+    ON events USING GIN (lower(annotation) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS events_description_trgm_idx
+    ON events USING GIN (lower(description) gin_trgm_ops);
+
+-- Отбор больше не идёт через tsvector, а ранжирование индекс не использует
+DROP INDEX CONCURRENTLY IF EXISTS events_text_search_idx;
@@ -1,52 +0,0 @@
--- Удаление таблиц с учётом зависимостей
-DROP TABLE IF EXISTS compilation_events CASCADE;
-DROP TABLE IF EXISTS compilations CASCADE;
-DROP TABLE IF EXISTS events CASCADE;
-DROP TABLE IF EXISTS categories CASCADE;
-
--- Таблица категорий (для связей с событиями)
-CREATE TABLE IF NOT EXISTS categories (
-    id BIGSERIAL PRIMARY KEY,
-    name TEXT NOT NULL UNIQUE
-);
-
--- Таблица событий
-CREATE TABLE IF NOT EXISTS events (
-    id BIGSERIAL PRIMARY KEY,
-    title TEXT NOT NULL,
-    annotation TEXT NOT NULL,
-    description TEXT NOT NULL,
-    category_id BIGINT NOT NULL,
-    event_date TIMESTAMP NOT NULL,
-    created_on TIMESTAMP NOT NULL,
-    published_on TIMESTAMP,
-    initiator_id BIGINT NOT NULL,
-    location_lat FLOAT NOT NULL,
-    location_lon FLOAT NOT NULL,
-    paid BOOLEAN NOT NULL,
-    participant_limit INT DEFAULT 0,
-    request_moderation BOOLEAN DEFAULT TRUE,
-    state TEXT NOT NULL
-);
-
--- Таблица подборок событий
-CREATE TABLE IF NOT EXISTS compilations (
-    id BIGSERIAL PRIMARY KEY,
-    title TEXT NOT NULL,
-    pinned BOOLEAN DEFAULT FALSE
-);
-
--- Связующая таблица между подборками и событиями
-CREATE TABLE IF NOT EXISTS compilation_events (
-    compilation_id BIGINT NOT NULL,
-    event_id BIGINT NOT NULL,
-    PRIMARY KEY (compilation_id, event_id),
-    FOREIGN KEY (compilation_id) REFERENCES compilations(id) ON DELETE CASCADE,
-    FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE
-);
-
--- Внешние ключи
-
-ALTER TABLE events
-ADD CONSTRAINT fk_category
-FOREIGN KEY (category_id) REFERENCES categories(id);
\ No newline at end of file
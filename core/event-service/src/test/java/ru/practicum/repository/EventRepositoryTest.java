@@ -0,0 +1,76 @@
+package ru.practicum.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.config.QueryDslConfig;
+import ru.practicum.enums.EventState;
+import ru.practicum.model.Category;
+import ru.practicum.model.Event;
+import ru.practicum.model.QEvent;
+import ru.practicum.pagination.EventKeyset;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryDslConfig.class)
+class EventRepositoryTest extends PostgresContainerTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(Category.builder().name("Концерты").build());
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(Event.builder()
+                    .title("Событие " + i)
+                    .annotation("Аннотация события " + i)
+                    .description("Описание события " + i)
+                    .eventDate(LocalDateTime.now().plusDays(i + 1))
+                    .createdOn(LocalDateTime.now())
+                    .participantLimit(0)
+                    .state(EventState.PUBLISHED)
+                    .initiatorId(1L)
+                    .category(category)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findSliceIssuesOneStatementWithoutCount() {
+        List<Event> first = eventRepository.findSlice(QEvent.event.state.eq(EventState.PUBLISHED),
+                EventKeyset.EVENT_DATE.orderBy(), 0, 3);
+        List<Event> second = eventRepository.findSlice(QEvent.event.state.eq(EventState.PUBLISHED),
+                EventKeyset.EVENT_DATE.orderBy(), 3, 3);
+
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
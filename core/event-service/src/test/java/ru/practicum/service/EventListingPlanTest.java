@@ -0,0 +1,359 @@
+package ru.practicum.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.cache.CategoryCache;
+import ru.practicum.cache.EventViewsCache;
+import ru.practicum.client.InternalRequestFeignClient;
+import ru.practicum.client.UserExistenceCache;
+import ru.practicum.config.QueryDslConfig;
+import ru.practicum.dto.params.EventParamsAdmin;
+import ru.practicum.dto.params.EventParamsPublic;
+import ru.practicum.dto.params.UserParamsAdmin;
+import ru.practicum.enrichment.EventEnricher;
+import ru.practicum.enrichment.EventExtras;
+import ru.practicum.ewm.client.StatClient;
+import ru.practicum.pagination.CursorPage;
+import ru.practicum.service.impl.EventServiceImpl;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Регрессия планов: каждый отбор списков EventServiceImpl на миллионе событий должен идти по индексам
+ * из миграций. Запросы к events перехватываются на уровне JDBC и тут же выполняются через
+ * EXPLAIN (FORMAT JSON) с теми же параметрами; Seq Scan по events в любом плане роняет тест.
+ * Объём задаётся через -Dtest.plans.events.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({QueryDslConfig.class, EventServiceImpl.class, EventListingPlanTest.ExplainRecorder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventListingPlanTest extends PostgresContainerTest {
+
+    private static final int EVENTS = Integer.getInteger("test.plans.events", 1_000_000);
+    private static final int CATEGORIES = 100;
+    private static final int INITIATORS = 100_000;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExplainRecorder recorder;
+
+    @MockBean
+    private StatClient statClient;
+
+    @MockBean
+    private EventViewsCache viewsCache;
+
+    @MockBean
+    private CategoryCache categoryCache;
+
+    @MockBean
+    private EventEnricher enricher;
+
+    @MockBean
+    private UserExistenceCache userCache;
+
+    @MockBean
+    private InternalRequestFeignClient requestClient;
+
+    // Миллион строк вставляется один раз на класс; очистка в @AfterAll идёт тем же JdbcTemplate
+    private static JdbcTemplate seededWith;
+    private static long firstCategoryId;
+
+    @BeforeEach
+    void setUp() {
+        if (seededWith == null) {
+            seed();
+            seededWith = jdbcTemplate;
+        }
+        EventExtras extras = new EventExtras(Map.of(), Map.of(), Map.of());
+        when(enricher.enrich(anyList())).thenReturn(extras);
+        when(enricher.enrich(anyList(), anyBoolean(), anyBoolean())).thenReturn(extras);
+    }
+
+    // Контейнер общий для всех тестов модуля: остальным нужны пустые таблицы
+    @AfterAll
+    static void cleanUp() {
+        if (seededWith != null) {
+            seededWith.execute("TRUNCATE events, categories CASCADE");
+            seededWith = null;
+        }
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("TRUNCATE events, categories CASCADE");
+        jdbcTemplate.update("INSERT INTO categories (name) SELECT 'Категория ' || g FROM generate_series(1, ?) AS g",
+                CATEGORIES);
+        firstCategoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM categories", Long.class);
+
+        // Даты на два года вокруг текущей, 60% опубликованы; в текстах md5, чтобы подстроки были редкими
+        long started = System.nanoTime();
+        jdbcTemplate.update("""
+                INSERT INTO events (title, annotation, description, category_id, event_date, created_on,
+                                    published_on, initiator_id, lat, lon, paid, participant_limit,
+                                    request_moderation, confirmed_requests, views, state)
+                SELECT 'Событие ' || g,
+                       'Аннотация ' || md5(g::text),
+                       'Описание ' || md5((g * 7)::text),
+                       ? + g % ?,
+                       now() - INTERVAL '365 days' + (hashint4(g) & 2147483647) % (730 * 1440) * INTERVAL '1 minute',
+                       now() - INTERVAL '400 days',
+                       now() - INTERVAL '390 days',
+                       1 + g % ?,
+                       55.75, 37.62,
+                       g % 2 = 0,
+                       g % 50,
+                       true,
+                       g % 40,
+                       (hashint4(g * 3) & 2147483647) % 100000,
+                       CASE WHEN g % 10 < 6 THEN 'PUBLISHED' WHEN g % 10 < 9 THEN 'PENDING' ELSE 'CANCELED' END
+                FROM generate_series(1, ?) AS g
+                """, firstCategoryId, CATEGORIES, INITIATORS, EVENTS);
+        jdbcTemplate.execute("ANALYZE events");
+        System.out.printf("Seeded %d events in %.1f s%n", EVENTS, (System.nanoTime() - started) / 1e9);
+    }
+
+    @Test
+    void publicUpcomingSortedById() {
+        assertIndexedPlans(() -> eventService.getPublicEvents(new EventParamsPublic(), new MockHttpServletRequest()));
+    }
+
+    @Test
+    void publicUpcomingSortedByEventDate() {
+        EventParamsPublic params = new EventParamsPublic();
+        params.setSort("EVENT_DATE");
+        assertIndexedPlans(() -> eventService.getPublicEvents(params, new MockHttpServletRequest()));
+    }
+
+    @Test
+    void publicUpcomingSortedByViews() {
+        EventParamsPublic params = new EventParamsPublic();
+        params.setSort("VIEWS");
+        assertIndexedPlans(() -> eventService.getPublicEvents(params, new MockHttpServletRequest()));
+    }
+
+    @Test
+    void publicByCategoriesInRange() {
+        EventParamsPublic params = new EventParamsPublic();
+        params.setCategories(List.of(firstCategoryId, firstCategoryId + 1));
+        params.setRangeStart(dayFromNow(10));
+        params.setRangeEnd(dayFromNow(40));
+        params.setSort("EVENT_DATE");
+        assertIndexedPlans(() -> eventService.getPublicEvents(params, new MockHttpServletRequest()));
+    }
+
+    @Test
+    void publicAvailablePaidInRange() {
+        EventParamsPublic params = new EventParamsPublic();
+        params.setPaid(true);
+        params.setOnlyAvailable(true);
+        params.setRangeStart(dayFromNow(1));
+        params.setRangeEnd(dayFromNow(30));
+        assertIndexedPlans(() -> eventService.getPublicEvents(params, new MockHttpServletRequest()));
+    }
+
+    @Test
+    void publicTextSearch() {
+        EventParamsPublic params = new EventParamsPublic();
+        params.setText("827ccb0");
+        assertIndexedPlans(() -> eventService.getPublicEvents(params, new MockHttpServletRequest()));
+    }
+
+    @Test
+    void publicTextSearchByRelevance() {
+        EventParamsPublic params = new EventParamsPublic();
+        params.setText("827ccb0");
+        params.setSort("RELEVANCE");
+        assertIndexedPlans(() -> eventService.getPublicEvents(params, new MockHttpServletRequest()));
+    }
+
+    @Test
+    void publicCursorPages() {
+        for (String sort : List.of("EVENT_DATE", "VIEWS")) {
+            EventParamsPublic params = new EventParamsPublic();
+            params.setSort(sort);
+            params.setCursor("");
+            CursorPage<?> first = eventService.getPublicEvents(params, new MockHttpServletRequest());
+            params.setCursor(first.nextCursor());
+            assertIndexedPlans(() -> eventService.getPublicEvents(params, new MockHttpServletRequest()));
+        }
+    }
+
+    @Test
+    void adminByUsers() {
+        EventParamsAdmin params = new EventParamsAdmin();
+        params.setUsers(List.of(42L, 4242L));
+        assertIndexedPlans(() -> eventService.getEventsByAdmin(params));
+    }
+
+    @Test
+    void adminByCategories() {
+        EventParamsAdmin params = new EventParamsAdmin();
+        params.setCategories(List.of(firstCategoryId));
+        params.setCursor("");
+        assertIndexedPlans(() -> eventService.getEventsByAdmin(params));
+    }
+
+    @Test
+    void adminByStatesInRange() {
+        EventParamsAdmin params = new EventParamsAdmin();
+        params.setStates(List.of("PENDING"));
+        params.setRangeStart(dayFromNow(-7));
+        params.setRangeEnd(dayFromNow(7));
+        assertIndexedPlans(() -> eventService.getEventsByAdmin(params));
+    }
+
+    @Test
+    void userEvents() {
+        assertIndexedPlans(() -> eventService.getUserEvents(4242L, new UserParamsAdmin()));
+    }
+
+    private void assertIndexedPlans(Supplier<?> listing) {
+        recorder.clear();
+        listing.get();
+
+        List<JsonNode> plans = recorder.plans();
+        assertFalse(plans.isEmpty(), "No query on events was captured");
+        for (JsonNode plan : plans) {
+            assertTrue(seqScansOnEvents(plan).isEmpty(), () -> "Seq Scan on events:\n" + plan.toPrettyString());
+        }
+    }
+
+    private static List<JsonNode> seqScansOnEvents(JsonNode node) {
+        List<JsonNode> scans = new ArrayList<>();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && "events".equals(node.path("Relation Name").asText())) {
+            scans.add(node);
+        }
+        node.forEach(child -> scans.addAll(seqScansOnEvents(child)));
+        return scans;
+    }
+
+    private static String dayFromNow(int days) {
+        return LocalDate.now().plusDays(days) + " 00:00:00";
+    }
+
+    /**
+     * Оборачивает DataSource: перед каждым SELECT из events выполняет на том же соединении
+     * EXPLAIN (FORMAT JSON) того же текста с теми же параметрами и запоминает план.
+     */
+    static class ExplainRecorder implements BeanPostProcessor {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private final List<JsonNode> plans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource, (method, args) -> {
+                Object result = method.invoke(dataSource, args);
+                return result instanceof Connection connection ? proxyConnection(connection) : result;
+            });
+        }
+
+        List<JsonNode> plans() {
+            return List.copyOf(plans);
+        }
+
+        void clear() {
+            plans.clear();
+        }
+
+        private Connection proxyConnection(Connection connection) {
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (method.getName().equals("prepareStatement") && isEventsQuery((String) args[0])) {
+                    return proxyStatement(connection, (PreparedStatement) result, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement proxyStatement(Connection connection, PreparedStatement statement, String sql) {
+            Map<Integer, Object[]> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer index) {
+                    parameters.put(index, new Object[]{method, args});
+                }
+                if (method.getName().equals("executeQuery") && (args == null || args.length == 0)) {
+                    plans.add(explain(connection, sql, parameters));
+                }
+                return method.invoke(statement, args);
+            });
+        }
+
+        private static JsonNode explain(Connection connection, String sql, Map<Integer, Object[]> parameters)
+                throws Exception {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                for (Object[] call : parameters.values()) {
+                    ((Method) call[0]).invoke(explain, (Object[]) call[1]);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return MAPPER.readTree(plan.getString(1));
+                }
+            }
+        }
+
+        private static boolean isEventsQuery(String sql) {
+            String normalized = sql.stripLeading().toLowerCase();
+            return normalized.startsWith("select") && normalized.contains(" from events ");
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                try {
+                    return invocation.invoke(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        private interface Invocation {
+            Object invoke(Method method, Object[] args) throws Throwable;
+        }
+    }
+}
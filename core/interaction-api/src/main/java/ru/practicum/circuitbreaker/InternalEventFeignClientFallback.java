@@ -2,7 +2,11 @@ package ru.practicum.circuitbreaker;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.client.InternalEventFeignClient;
+import ru.practicum.dto.ConfirmedRequestsChangeDto;
 import ru.practicum.dto.EventFullDto;
+import ru.practicum.exception.FallbackResponse;
+
+import java.util.List;
 
 @Component
 public class InternalEventFeignClientFallback implements InternalEventFeignClient {
@@ -11,4 +15,10 @@ public class InternalEventFeignClientFallback implements InternalEventFeignClien
     public EventFullDto getEventByEventId(Long eventId) {
         return null;
     }
+
+    // Изменения остаются в outbox и отправляются повторно, поэтому ошибку нельзя скрывать
+    @Override
+    public void applyConfirmedRequestsChanges(List<ConfirmedRequestsChangeDto> changes) {
+        throw new FallbackResponse("Event service is unavailable, confirmed requests changes were not delivered");
+    }
 }
\ No newline at end of file
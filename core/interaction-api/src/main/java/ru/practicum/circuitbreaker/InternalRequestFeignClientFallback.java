@@ -1,11 +1,15 @@
 package ru.practicum.circuitbreaker;
 
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import ru.practicum.client.InternalRequestFeignClient;
+import ru.practicum.dto.EventRequestStatusUpdateResult;
 import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.dto.RequestStatusBulkUpdateDto;
+import ru.practicum.exception.FallbackResponse;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 public class InternalRequestFeignClientFallback implements InternalRequestFeignClient {
@@ -15,9 +19,14 @@ public class InternalRequestFeignClientFallback implements InternalRequestFeignC
         return List.of();
     }
 
+    // Модерация заявок без request-service невозможна, молча вернуть пустой результат нельзя
     @Override
-    public ResponseEntity<Object> saveAll(List<ParticipationRequestDto> requests) {
+    public EventRequestStatusUpdateResult updateStatuses(RequestStatusBulkUpdateDto update) {
+        throw new FallbackResponse("Request service is unavailable, request statuses were not changed");
+    }
 
-        return null;
+    @Override
+    public Map<Long, Long> getConfirmedCounts(Set<Long> eventIds) {
+        return Map.of();
     }
 }
\ No newline at end of file
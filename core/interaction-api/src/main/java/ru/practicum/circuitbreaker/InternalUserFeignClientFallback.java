@@ -2,7 +2,12 @@ package ru.practicum.circuitbreaker;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.client.InternalUserFeignClient;
+import ru.practicum.dto.UserDeletionDto;
 import ru.practicum.dto.UserDto;
+import ru.practicum.dto.UserShortDto;
+
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class InternalUserFeignClientFallback implements InternalUserFeignClient {
@@ -11,4 +16,25 @@ public class InternalUserFeignClientFallback implements InternalUserFeignClient
     public UserDto getByUserId(Long userId) {
         return null;
     }
+
+    @Override
+    public List<Long> getUserIds(long after, int size) {
+        return List.of();
+    }
+
+    @Override
+    public List<UserDeletionDto> getDeletions(long after, int size) {
+        return List.of();
+    }
+
+    // Курсор с нуля: журнал прочитается целиком, он ограничен сроком хранения в user-service
+    @Override
+    public long getLastDeletionId() {
+        return 0;
+    }
+
+    @Override
+    public List<UserShortDto> getShortUsers(Set<Long> ids) {
+        return List.of();
+    }
 }
\ No newline at end of file
@@ -3,9 +3,14 @@ package ru.practicum.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import ru.practicum.circuitbreaker.InternalEventFeignClientFallback;
+import ru.practicum.dto.ConfirmedRequestsChangeDto;
 import ru.practicum.dto.EventFullDto;
 
+import java.util.List;
+
 @FeignClient(name = "event-service",
         contextId = "InternalEventFeignClient",
         path = "/internal/events",
@@ -14,4 +19,7 @@ public interface InternalEventFeignClient {
 
     @GetMapping("/{eventId}")
     EventFullDto getEventByEventId(@PathVariable Long eventId);
+
+    @PostMapping("/confirmed-requests")
+    void applyConfirmedRequestsChanges(@RequestBody List<ConfirmedRequestsChangeDto> changes);
 }
\ No newline at end of file
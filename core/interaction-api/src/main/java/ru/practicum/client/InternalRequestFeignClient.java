@@ -1,15 +1,18 @@
 package ru.practicum.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import ru.practicum.circuitbreaker.InternalRequestFeignClientFallback;
+import ru.practicum.dto.EventRequestStatusUpdateResult;
 import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.dto.RequestStatusBulkUpdateDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @FeignClient(name = "request-service",
         contextId = "InternalRequestFeignClient",
@@ -20,6 +23,9 @@ public interface InternalRequestFeignClient {
     @GetMapping("/events/{eventId}/requests")
     List<ParticipationRequestDto> getRequestsByEventId(@PathVariable Long eventId);
 
-    @PostMapping("/requests/save")
-    ResponseEntity<Object> saveAll(@RequestBody List<ParticipationRequestDto> requests);
+    @PostMapping("/requests/status")
+    EventRequestStatusUpdateResult updateStatuses(@RequestBody RequestStatusBulkUpdateDto update);
+
+    @PostMapping("/requests/confirmed-counts")
+    Map<Long, Long> getConfirmedCounts(@RequestBody Set<Long> eventIds);
 }
\ No newline at end of file
@@ -3,8 +3,16 @@ package ru.practicum.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import ru.practicum.circuitbreaker.InternalUserFeignClientFallback;
+import ru.practicum.dto.UserDeletionDto;
 import ru.practicum.dto.UserDto;
+import ru.practicum.dto.UserShortDto;
+
+import java.util.List;
+import java.util.Set;
 
 @FeignClient(name = "user-service",
         contextId = "InternalUserFeignClient",
@@ -14,4 +22,16 @@ public interface InternalUserFeignClient {
 
     @GetMapping("/{userId}")
     UserDto getByUserId(@PathVariable Long userId);
+
+    @GetMapping("/ids")
+    List<Long> getUserIds(@RequestParam long after, @RequestParam int size);
+
+    @GetMapping("/deletions")
+    List<UserDeletionDto> getDeletions(@RequestParam long after, @RequestParam int size);
+
+    @GetMapping("/deletions/last")
+    long getLastDeletionId();
+
+    @PostMapping("/short")
+    List<UserShortDto> getShortUsers(@RequestBody Set<Long> ids);
 }
\ No newline at end of file
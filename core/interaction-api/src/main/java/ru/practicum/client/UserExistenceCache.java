@@ -0,0 +1,152 @@
+package ru.practicum.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.dto.UserDeletionDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.exception.NotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кэш существования пользователей для сервисов, которым id пользователя нужен только для проверки.
+ * Найденные пользователи хранятся долго, отсутствующие — коротко. Удаления приходят
+ * из журнала user-service, который периодически опрашивается по возрастающему id записи
+ * начиная с последней записи на момент старта. Id записи выдаётся последовательностью до коммита,
+ * поэтому запись с меньшим id может стать видна позже записи с большим: каждый опрос заново читает
+ * окно из user-cache.deletions-overlap id перед курсором. Удаление, закоммиченное позже, чем
+ * курсор ушёл за окно, пропускается, но запись о пользователе всё равно истекает через user-cache.ttl.
+ * Журнал в user-service хранится дольше user-cache.ttl.
+ * В самом user-service отключается через user-cache.enabled=false.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "user-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserExistenceCache {
+
+    private final InternalUserFeignClient userClient;
+    private final Cache<Long, Boolean> existing;
+    private final Cache<Long, Boolean> missing;
+    private final boolean warmUp;
+    private final int warmUpBatchSize;
+    private final int deletionsBatchSize;
+    private final long deletionsOverlap;
+    // Не synchronized: под замком идёт Feign-вызов, а synchronized закрепляет виртуальный поток за несущим
+    private final ReentrantLock deletionsLock = new ReentrantLock();
+
+    private long lastDeletionId;
+
+    public UserExistenceCache(InternalUserFeignClient userClient,
+                              @Value("${user-cache.ttl:10m}") Duration ttl,
+                              @Value("${user-cache.negative-ttl:30s}") Duration negativeTtl,
+                              @Value("${user-cache.max-size:100000}") long maxSize,
+                              @Value("${user-cache.warm-up:false}") boolean warmUp,
+                              @Value("${user-cache.warm-up-batch-size:1000}") int warmUpBatchSize,
+                              @Value("${user-cache.deletions-batch-size:500}") int deletionsBatchSize,
+                              @Value("${user-cache.deletions-overlap:1000}") long deletionsOverlap) {
+        this.userClient = userClient;
+        this.warmUp = warmUp;
+        this.warmUpBatchSize = warmUpBatchSize;
+        this.deletionsBatchSize = deletionsBatchSize;
+        this.deletionsOverlap = deletionsOverlap;
+        this.existing = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public void checkExists(Long userId) {
+        if (existing.getIfPresent(userId) != null) {
+            return;
+        }
+        if (missing.getIfPresent(userId) != null) {
+            throw notFound(userId);
+        }
+
+        UserDto user;
+        try {
+            user = userClient.getByUserId(userId);
+        } catch (FeignException.NotFound e) {
+            missing.put(userId, Boolean.TRUE);
+            throw notFound(userId);
+        }
+        // null приходит из fallback, когда user-service недоступен: проверку пропускаем, но не кэшируем
+        if (user != null) {
+            existing.put(userId, Boolean.TRUE);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // Кэш пуст, поэтому прошлые удаления ничего не сбрасывают: курсор ставится на конец журнала
+        // до прогрева, чтобы удаления во время прогрева всё равно были прочитаны
+        deletionsLock.lock();
+        try {
+            lastDeletionId = Math.max(lastDeletionId, userClient.getLastDeletionId());
+        } catch (Exception e) {
+            log.warn("Не удалось получить конец журнала удалений пользователей: {}", e.getMessage());
+        } finally {
+            deletionsLock.unlock();
+        }
+        if (!warmUp) {
+            return;
+        }
+        long lastId = 0;
+        int loaded = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = userClient.getUserIds(lastId, warmUpBatchSize);
+                ids.forEach(id -> existing.put(id, Boolean.TRUE));
+                loaded += ids.size();
+                if (!ids.isEmpty()) {
+                    lastId = ids.getLast();
+                }
+            } while (ids.size() == warmUpBatchSize);
+            log.info("Кэш пользователей прогрет: {} id", loaded);
+        } catch (Exception e) {
+            log.warn("Не удалось прогреть кэш пользователей после id {}: {}", lastId, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${user-cache.deletions-poll-interval-ms:10000}",
+            fixedDelayString = "${user-cache.deletions-poll-interval-ms:10000}")
+    public void pollDeletions() {
+        deletionsLock.lock();
+        try {
+            // Повторное чтение окна безопасно: сброс записи кэша идемпотентен
+            long afterId = Math.max(0, lastDeletionId - deletionsOverlap);
+            List<UserDeletionDto> deletions;
+            do {
+                deletions = userClient.getDeletions(afterId, deletionsBatchSize);
+                for (UserDeletionDto deletion : deletions) {
+                    existing.invalidate(deletion.getUserId());
+                    afterId = Math.max(afterId, deletion.getId());
+                }
+                lastDeletionId = Math.max(lastDeletionId, afterId);
+            } while (deletions.size() == deletionsBatchSize);
+        } catch (Exception e) {
+            log.warn("Не удалось получить журнал удалений пользователей: {}", e.getMessage());
+        } finally {
+            deletionsLock.unlock();
+        }
+    }
+
+    private static NotFoundException notFound(Long userId) {
+        return new NotFoundException("The user with id: " + userId + " not found!");
+    }
+}
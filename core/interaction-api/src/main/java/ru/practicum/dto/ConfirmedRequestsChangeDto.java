@@ -0,0 +1,17 @@
+package ru.practicum.dto;
+
+import lombok.*;
+
+// Изменение числа подтверждённых заявок события; changeId уникален и служит ключом идемпотентности.
+// При absolute = true delta — новое значение счётчика, а не прибавка
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConfirmedRequestsChangeDto {
+    private Long changeId;
+    private Long eventId;
+    private long delta;
+    private boolean absolute;
+}
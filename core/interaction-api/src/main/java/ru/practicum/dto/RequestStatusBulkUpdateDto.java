@@ -0,0 +1,19 @@
+package ru.practicum.dto;
+
+import lombok.*;
+import ru.practicum.enums.RequestStatus;
+
+import java.util.List;
+
+// Смена статуса заявок события одной операцией; лимит передаётся из event-service
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestStatusBulkUpdateDto {
+    private Long eventId;
+    private List<Long> requestIds;
+    private RequestStatus status;
+    private int participantLimit;
+}
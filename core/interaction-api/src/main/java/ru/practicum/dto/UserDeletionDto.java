@@ -0,0 +1,14 @@
+package ru.practicum.dto;
+
+import lombok.*;
+
+// Запись журнала удалений пользователей; id возрастает и служит курсором для опроса
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDeletionDto {
+    private Long id;
+    private Long userId;
+}
@@ -30,4 +30,6 @@ public class EventParamsAdmin {
 
     @Positive
     private Integer size = PaginationDefaults.DEFAULT_SIZE;  // количество событий в наборе // Default value : 10
+
+    private String cursor; // курсор следующей страницы из заголовка X-Next-Cursor; пустое значение — первая страница
 }
\ No newline at end of file
@@ -15,7 +15,7 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class EventParamsPublic {
 
-    private String text; // текст для поиска в содержимом аннотации и подробном описании события
+    private String text; // текст для полнотекстового поиска по аннотации и подробному описанию события
 
     private List<Long> categories; // список идентификаторов категорий в которых будет вестись поиск
 
@@ -27,7 +27,7 @@ public class EventParamsPublic {
 
     private boolean onlyAvailable = false; // только события у которых не исчерпан лимит запросов на участие
 
-    private String sort; // Вариант сортировки: по дате события или по количеству просмотров
+    private String sort; // Вариант сортировки: EVENT_DATE, VIEWS или RELEVANCE (по релевантности text)
 
     @PositiveOrZero
     private Integer from = PaginationDefaults.DEFAULT_FROM;  // количество событий, которые нужно пропустить // Default value : 0
@@ -35,4 +35,6 @@ public class EventParamsPublic {
     @Positive
     private Integer size = PaginationDefaults.DEFAULT_SIZE;  // количество событий в наборе // Default value : 10
 
+    private String cursor; // курсор следующей страницы из заголовка X-Next-Cursor; пустое значение — первая страница
+
 }
\ No newline at end of file
@@ -13,4 +13,5 @@ public class UserParamsAdmin {
     private List<Long> ids;
     private int from = PaginationDefaults.DEFAULT_FROM;
     private int size = PaginationDefaults.DEFAULT_SIZE;
+    private String cursor; // курсор следующей страницы из заголовка X-Next-Cursor; пустое значение — первая страница
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package ru.practicum.diagnostics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагрузка для {@link VirtualThreadLoadBenchmarkTest}: после прогрева отправляет все запросы разом,
+ * каждый по своему соединению, и печатает одну строку с результатом. Запускается отдельным процессом, чтобы
+ * клиентские и серверные сокеты не делили один лимит файловых дескрипторов.
+ */
+public class LoadGenerator {
+
+    private static final int TIMEOUT_MS = 120_000;
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int requests = Integer.parseInt(args[1]);
+        URI warmUpUri = URI.create(args[2]);
+        int warmUp = Integer.parseInt(args[3]);
+
+        run(warmUpUri, warmUp);
+        System.out.println(run(uri, requests));
+    }
+
+    // Общее время, число ошибок и перцентили задержки успешных запросов, всё в мс
+    private static String run(URI uri, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                executor.submit(() -> latencies[index] = send(uri));
+            }
+        }
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+
+        long[] succeeded = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        long failed = requests - succeeded.length;
+        if (succeeded.length == 0) {
+            return elapsed + " " + failed + " 0 0 0";
+        }
+        return elapsed + " " + failed + " " + percentile(succeeded, 0.5) + " " + percentile(succeeded, 0.99)
+                + " " + succeeded[succeeded.length - 1];
+    }
+
+    // Простой GET по отдельному соединению; HttpClient из JDK на одном ядре сам становится узким местом
+    private static long send(URI uri) {
+        long sent = System.nanoTime();
+        try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + uri.getPath() + " HTTP/1.1\r\nHost: " + uri.getHost()
+                    + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            byte[] response = socket.getInputStream().readAllBytes();
+            String statusLine = new String(response, 0, Math.min(response.length, 12), StandardCharsets.US_ASCII);
+            return statusLine.equals("HTTP/1.1 200") ? (System.nanoTime() - sent) / 1_000_000 : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+    }
+}
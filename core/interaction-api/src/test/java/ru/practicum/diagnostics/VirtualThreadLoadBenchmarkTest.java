@@ -0,0 +1,136 @@
+package ru.practicum.diagnostics;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность сервлет-контейнера при 10 тысячах одновременных запросов, каждый из которых
+ * ждёт медленный нижестоящий вызов, на пуле платформенных потоков Tomcat и на виртуальных потоках
+ * (spring.threads.virtual.enabled). Нижестоящий вызов заменён заглушкой с задержкой: блокировка
+ * в Thread.sleep отпускает несущий поток так же, как ожидание ответа Feign или JDBC.
+ * Задержка в секунду выбрана так, чтобы потолок пула из 200 потоков (200 запросов в секунду) был заметно
+ * ниже потолка процессора. Число запросов и задержка меняются через -Dbenchmark.load.requests
+ * и -Dbenchmark.load.delay-ms.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.load.requests", 10_000);
+    private static final int WARM_UP = Integer.getInteger("benchmark.load.warm-up", 5_000);
+    private static final long DELAY_MS = Long.getLong("benchmark.load.delay-ms", 1_000);
+
+    @Test
+    void virtualThreadsServeSlowDownstreamFasterThanPlatformPool() throws IOException, InterruptedException {
+        Result platform = measure(false);
+        Result virtual = measure(true);
+        System.out.printf("%d concurrent requests, downstream %d ms: virtual threads are %.1fx faster%n",
+                REQUESTS, DELAY_MS, virtual.throughput() / platform.throughput());
+
+        assertEquals(0, platform.failed(), "Requests failed on the platform pool");
+        assertEquals(0, virtual.failed(), "Requests failed on virtual threads");
+        assertTrue(virtual.throughput() > 2 * platform.throughput(),
+                "Virtual threads must not be capped by the Tomcat worker pool");
+    }
+
+    private static Result measure(boolean virtual) throws IOException, InterruptedException {
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(LoadTestApplication.class)
+                        .properties("server.port=0",
+                                "spring.threads.virtual.enabled=" + virtual,
+                                "server.tomcat.max-connections=" + (REQUESTS + 1_000),
+                                "server.tomcat.accept-count=4096",
+                                "slow-downstream.delay-ms=" + DELAY_MS)
+                        .run()) {
+            String server = "http://localhost:" + context.getWebServer().getPort();
+            Result result = runGenerator(server + "/slow", server + "/fast");
+            System.out.printf("%s: %d requests in %d ms, %.0f req/s, failed %d, latency p50 %d ms, p99 %d ms, "
+                            + "max %d ms%n", virtual ? "virtual threads" : "platform pool", REQUESTS,
+                    result.elapsedMs(), result.throughput(), result.failed(), result.p50(), result.p99(),
+                    result.max());
+            return result;
+        }
+    }
+
+    // Генератор — отдельный процесс с тем же classpath: 10 тысяч соединений с обеих сторон в одной JVM
+    // упираются в лимит файловых дескрипторов раньше, чем в сервер
+    private static Result runGenerator(String uri, String warmUpUri) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                LoadGenerator.class.getName(), uri, String.valueOf(REQUESTS), warmUpUri, String.valueOf(WARM_UP))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        List<String> output;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.lines().toList();
+        }
+        assertEquals(0, process.waitFor(), "Load generator failed");
+        long[] values = Arrays.stream(output.getLast().split(" ")).mapToLong(Long::parseLong).toArray();
+        return new Result(values[0], values[1], values[2], values[3], values[4]);
+    }
+
+    private record Result(long elapsedMs, long failed, long p50, long p99, long max) {
+
+        double throughput() {
+            return (REQUESTS - failed) * 1000.0 / elapsedMs;
+        }
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class
+    })
+    @Import({SlowController.class, VirtualThreadPinningMonitor.class})
+    static class LoadTestApplication {
+    }
+
+    @RestController
+    static class SlowController {
+
+        private final long delayMs;
+
+        SlowController(@Value("${slow-downstream.delay-ms}") long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        @GetMapping("/slow")
+        String slow() throws InterruptedException {
+            Thread.sleep(delayMs);
+            return "ok";
+        }
+
+        // Прогрев JIT тем же стеком, но без ожидания: на пуле потоков он иначе занял бы минуты
+        @GetMapping("/fast")
+        String fast() {
+            return "ok";
+        }
+    }
+}
@@ -2,14 +2,17 @@ package ru.practicum.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.client.InternalRequestFeignClient;
+import ru.practicum.dto.EventRequestStatusUpdateResult;
 import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.dto.RequestStatusBulkUpdateDto;
 import ru.practicum.service.RequestService;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -26,9 +29,15 @@ public class InternalRequestController implements InternalRequestFeignClient {
     }
 
     @Override
-    public ResponseEntity<Object> saveAll(List<ParticipationRequestDto> requests) {
-        log.info("Internal - Сохранение списка запросов на участие в событии: {}", requests);
-        requestService.saveAll(requests);
-        return ResponseEntity.noContent().build();
+    public EventRequestStatusUpdateResult updateStatuses(RequestStatusBulkUpdateDto update) {
+        log.info("Internal - Изменение статуса заявок {} события с id: {} на {}", update.getRequestIds(),
+                update.getEventId(), update.getStatus());
+        return requestService.updateStatuses(update);
+    }
+
+    @Override
+    public Map<Long, Long> getConfirmedCounts(Set<Long> eventIds) {
+        log.info("Internal - Получение числа подтверждённых заявок для событий: {}", eventIds);
+        return requestService.getConfirmedCounts(eventIds);
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package ru.practicum.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Запись outbox: изменение числа подтверждённых заявок события, ещё не доставленное в event-service
+@Entity
+@Table(name = "confirmed_request_changes")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConfirmedRequestChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    // При absolute = true — новое значение счётчика, иначе прибавка к нему
+    @Column(nullable = false)
+    private long delta;
+
+    @Column(nullable = false)
+    private boolean absolute;
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
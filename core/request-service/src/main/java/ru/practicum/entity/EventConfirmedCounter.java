@@ -0,0 +1,23 @@
+package ru.practicum.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Число подтверждённых заявок события, по которому атомарно проверяется лимит участников
+@Entity
+@Table(name = "event_confirmed_counters")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventConfirmedCounter {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(nullable = false)
+    private long confirmed;
+}
@@ -0,0 +1,48 @@
+package ru.practicum.limit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.repository.EventConfirmedCounterRepository;
+
+/**
+ * Лимит участников события. Места резервируются условным UPDATE строки-счётчика в той же транзакции,
+ * что и смена статуса заявки, поэтому параллельные подтверждения не превышают лимит.
+ * Строка создаётся при первом обращении по текущему числу подтверждённых заявок.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParticipantLimit {
+
+    private final EventConfirmedCounterRepository counterRepository;
+
+    // Число подтверждённых заявок без блокировки; годится для проверки заявок, которые мест не занимают
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long getConfirmed(Long eventId) {
+        counterRepository.createIfAbsent(eventId);
+        return counterRepository.getConfirmed(eventId);
+    }
+
+    // Блокирует счётчик события до конца транзакции, другие подтверждения по событию ждут
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long lock(Long eventId) {
+        counterRepository.createIfAbsent(eventId);
+        return counterRepository.lockConfirmed(eventId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(Long eventId, long count, int limit) {
+        counterRepository.createIfAbsent(eventId);
+        return counterRepository.tryAdd(eventId, count, limit) > 0;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long eventId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        counterRepository.createIfAbsent(eventId);
+        counterRepository.add(eventId, delta);
+    }
+}
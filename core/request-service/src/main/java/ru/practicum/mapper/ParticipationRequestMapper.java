@@ -14,14 +14,4 @@ public class ParticipationRequestMapper {
                 .status(request.getStatus())
                 .build();
     }
-
-    public static ParticipationRequest toEntity(ParticipationRequestDto dto) {
-        return ParticipationRequest.builder()
-                .id(dto.getId())
-                .created(dto.getCreated())
-                .eventId(dto.getEvent())
-                .requesterId(dto.getRequester())
-                .status(dto.getStatus())
-                .build();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package ru.practicum.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.client.InternalEventFeignClient;
+import ru.practicum.dto.ConfirmedRequestsChangeDto;
+import ru.practicum.entity.ConfirmedRequestChange;
+import ru.practicum.enums.ParticipationRequestStatus;
+import ru.practicum.repository.ConfirmedRequestChangeRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox изменений числа подтверждённых заявок.
+ * Изменения пишутся в той же транзакции, что и смена статуса заявки,
+ * и по расписанию доставляются в event-service, который применяет каждое изменение не более одного раза.
+ * Строки с absolute = true задают значение счётчика (разовая начальная синхронизация).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmedRequestsOutbox {
+
+    private final ConfirmedRequestChangeRepository changeRepository;
+    private final InternalEventFeignClient eventClient;
+
+    @Value("${request-outbox.batch-size:100}")
+    private int batchSize;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Long eventId, ParticipationRequestStatus oldStatus,
+                                   ParticipationRequestStatus newStatus) {
+        record(eventId, confirmedDelta(oldStatus, newStatus));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long eventId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        changeRepository.save(ConfirmedRequestChange.builder()
+                .eventId(eventId)
+                .delta(delta)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    // Строки удаляются только после успешной доставки; при ошибке пачка уйдёт повторно.
+    // Доставляет один экземпляр за раз: изменения одного события должны приходить в порядке id
+    @Transactional
+    @Scheduled(fixedDelayString = "${request-outbox.relay-interval-ms:1000}")
+    public void relay() {
+        if (!changeRepository.tryLockRelay()) {
+            return;
+        }
+        List<ConfirmedRequestChange> batch = changeRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            eventClient.applyConfirmedRequestsChanges(batch.stream()
+                    .map(change -> new ConfirmedRequestsChangeDto(change.getId(), change.getEventId(),
+                            change.getDelta(), change.isAbsolute()))
+                    .toList());
+        } catch (Exception e) {
+            log.warn("Не удалось доставить {} изменений подтверждённых заявок: {}", batch.size(), e.getMessage());
+            return;
+        }
+
+        changeRepository.deleteAllInBatch(batch);
+    }
+
+    public static long confirmedDelta(ParticipationRequestStatus oldStatus, ParticipationRequestStatus newStatus) {
+        long before = oldStatus == ParticipationRequestStatus.CONFIRMED ? 1 : 0;
+        long after = newStatus == ParticipationRequestStatus.CONFIRMED ? 1 : 0;
+        return after - before;
+    }
+}
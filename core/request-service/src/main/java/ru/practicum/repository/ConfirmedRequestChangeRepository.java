@@ -0,0 +1,23 @@
+package ru.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.entity.ConfirmedRequestChange;
+
+import java.util.List;
+
+public interface ConfirmedRequestChangeRepository extends JpaRepository<ConfirmedRequestChange, Long> {
+
+    // Блокировка до конца транзакции; другие экземпляры в это время доставку пропускают
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('confirmed_request_changes'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    @Query(value = """
+            SELECT *
+            FROM confirmed_request_changes
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ConfirmedRequestChange> lockNextBatch(int limit);
+}
@@ -0,0 +1,58 @@
+package ru.practicum.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.entity.EventConfirmedCounter;
+
+public interface EventConfirmedCounterRepository extends JpaRepository<EventConfirmedCounter, Long> {
+
+    // Конкурентные вставки не конфликтуют: вторая ждёт первую и ничего не делает.
+    // Если строка уже есть, NOT EXISTS не даёт строки для вставки, и заявки не подсчитываются:
+    // вызов стоит одного поиска по ключу
+    @Modifying
+    @Query(value = """
+            INSERT INTO event_confirmed_counters (event_id, confirmed)
+            SELECT :eventId, (SELECT COUNT(*)
+                              FROM participation_requests
+                              WHERE event_id = :eventId
+                              AND status = 'CONFIRMED')
+            WHERE NOT EXISTS (SELECT 1 FROM event_confirmed_counters WHERE event_id = :eventId)
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    void createIfAbsent(Long eventId);
+
+    @Query(value = """
+            SELECT confirmed
+            FROM event_confirmed_counters
+            WHERE event_id = :eventId
+            """, nativeQuery = true)
+    long getConfirmed(Long eventId);
+
+    // Строка остаётся заблокированной до конца транзакции
+    @Query(value = """
+            SELECT confirmed
+            FROM event_confirmed_counters
+            WHERE event_id = :eventId
+            FOR UPDATE
+            """, nativeQuery = true)
+    long lockConfirmed(Long eventId);
+
+    // Лимит 0 означает отсутствие ограничения; 0 изменённых строк — мест не хватило
+    @Modifying
+    @Query(value = """
+            UPDATE event_confirmed_counters
+            SET confirmed = confirmed + :count
+            WHERE event_id = :eventId
+            AND (:limit = 0 OR confirmed + :count <= :limit)
+            """, nativeQuery = true)
+    int tryAdd(Long eventId, long count, int limit);
+
+    @Modifying
+    @Query(value = """
+            UPDATE event_confirmed_counters
+            SET confirmed = confirmed + :delta
+            WHERE event_id = :eventId
+            """, nativeQuery = true)
+    int add(Long eventId, long delta);
+}
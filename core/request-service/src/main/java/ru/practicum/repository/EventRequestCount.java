@@ -0,0 +1,9 @@
+package ru.practicum.repository;
+
+// Число заявок по событию, проекция группирующего запроса
+public interface EventRequestCount {
+
+    Long getEventId();
+
+    Long getCount();
+}
@@ -1,10 +1,16 @@
 package ru.practicum.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.dto.ParticipationRequestDto;
 import ru.practicum.entity.ParticipationRequest;
 import ru.practicum.enums.ParticipationRequestStatus;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ParticipationRequestRepository extends JpaRepository<ParticipationRequest, Long> {
 
@@ -14,6 +20,43 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
 
     List<ParticipationRequest> findAllByEventId(Long eventId);
 
-    long countByEventIdAndStatus(Long eventId, ParticipationRequestStatus status);
+    List<ParticipationRequest> findAllByIdInAndEventId(Collection<Long> ids, Long eventId);
+
+    // Только id события, без загрузки заявки в контекст: заявка читается заново после блокировки счётчика
+    @Query("SELECT r.eventId FROM ParticipationRequest AS r WHERE r.id = :id")
+    Optional<Long> findEventIdById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ParticipationRequest AS r WHERE r.id = :id")
+    Optional<ParticipationRequest> findByIdForUpdate(Long id);
+
+    // Одним UPDATE без предварительной загрузки; id, которых нет в ответе, чужие, несуществующие или не в PENDING.
+    // Без @Modifying: RETURNING возвращает строки, и запрос выполняется как выборка
+    @Query(value = """
+            UPDATE participation_requests
+            SET status = :status
+            WHERE id IN :ids
+            AND event_id = :eventId
+            AND status = 'PENDING'
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> updatePendingStatus(Collection<Long> ids, Long eventId, String status);
+
+    @Query("""
+            SELECT new ru.practicum.dto.ParticipationRequestDto(r.id, r.created, r.eventId, r.requesterId, r.status)
+            FROM ParticipationRequest AS r
+            WHERE r.id IN :ids
+            ORDER BY r.id
+            """)
+    List<ParticipationRequestDto> findDtosByIdIn(Collection<Long> ids);
+
+    @Query("""
+            SELECT r.eventId AS eventId, COUNT(r.id) AS count
+            FROM ParticipationRequest AS r
+            WHERE r.eventId IN :eventIds
+            AND r.status = :status
+            GROUP BY r.eventId
+            """)
+    List<EventRequestCount> countByEventIdsAndStatus(Collection<Long> eventIds, ParticipationRequestStatus status);
 
 }
\ No newline at end of file
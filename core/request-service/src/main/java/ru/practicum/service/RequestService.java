@@ -1,9 +1,12 @@
 package ru.practicum.service;
 
-import org.springframework.web.bind.annotation.RequestBody;
+import ru.practicum.dto.EventRequestStatusUpdateResult;
 import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.dto.RequestStatusBulkUpdateDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface RequestService {
     List<ParticipationRequestDto> getUserRequests(Long userId);
@@ -14,5 +17,7 @@ public interface RequestService {
 
     List<ParticipationRequestDto> getRequestsByEventId(Long eventId);
 
-    void saveAll(@RequestBody List<ParticipationRequestDto> requests);
+    EventRequestStatusUpdateResult updateStatuses(RequestStatusBulkUpdateDto update);
+
+    Map<Long, Long> getConfirmedCounts(Set<Long> eventIds);
 }
\ No newline at end of file
@@ -3,23 +3,30 @@ package ru.practicum.service.impl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.bind.annotation.RequestBody;
 import ru.practicum.client.InternalEventFeignClient;
-import ru.practicum.client.InternalUserFeignClient;
+import ru.practicum.client.UserExistenceCache;
 import ru.practicum.dto.EventFullDto;
+import ru.practicum.dto.EventRequestStatusUpdateResult;
 import ru.practicum.dto.ParticipationRequestDto;
-import ru.practicum.dto.UserDto;
+import ru.practicum.dto.RequestStatusBulkUpdateDto;
 import ru.practicum.entity.ParticipationRequest;
 import ru.practicum.enums.EventState;
 import ru.practicum.enums.ParticipationRequestStatus;
+import ru.practicum.enums.RequestStatus;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.limit.ParticipantLimit;
 import ru.practicum.mapper.ParticipationRequestMapper;
+import ru.practicum.outbox.ConfirmedRequestsOutbox;
+import ru.practicum.repository.EventRequestCount;
 import ru.practicum.repository.ParticipationRequestRepository;
 import ru.practicum.service.RequestService;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,8 +35,10 @@ import java.util.stream.Collectors;
 public class RequestServiceImpl implements RequestService {
 
     private final ParticipationRequestRepository requestRepository;
-    private final InternalUserFeignClient userClient;
+    private final UserExistenceCache userCache;
     private final InternalEventFeignClient eventClient;
+    private final ConfirmedRequestsOutbox outbox;
+    private final ParticipantLimit participantLimit;
 
 
     @Override
@@ -43,7 +52,7 @@ public class RequestServiceImpl implements RequestService {
     @Override
     @Transactional
     public ParticipationRequestDto addRequest(Long requesterId, Long eventId) {
-        UserDto requester = getUserById(requesterId);
+        getUserById(requesterId);
         EventFullDto event = getEventById(eventId);
 
         if (requestRepository.existsByRequesterIdAndEventId(requesterId, eventId)) {
@@ -56,37 +65,50 @@ public class RequestServiceImpl implements RequestService {
             throw new ConflictException("Participation in an unpublished event is not allowed.");
         }
 
-        long confirmedRequests = requestRepository.countByEventIdAndStatus(eventId, ParticipationRequestStatus.CONFIRMED);
+        int limit = event.getParticipantLimit();
+        boolean autoConfirm = !event.isRequestModeration() || limit == 0;
 
-        if (confirmedRequests >= event.getParticipantLimit() && event.getParticipantLimit() != 0) {
+        // Подтверждаемая сразу заявка занимает место атомарно, заявка на модерацию места не занимает
+        boolean limitReached = autoConfirm
+                ? !participantLimit.tryReserve(eventId, 1, limit)
+                : participantLimit.getConfirmed(eventId) >= limit;
+        if (limitReached) {
             throw new ConflictException("The event has reached the participation request limit.");
         }
 
         ParticipationRequest request = ParticipationRequest.builder()
-                .requesterId(requester.getId())
+                .requesterId(requesterId)
                 .eventId(eventId)
                 .created(LocalDateTime.now())
-                .status(ParticipationRequestStatus.PENDING)
+                .status(autoConfirm ? ParticipationRequestStatus.CONFIRMED : ParticipationRequestStatus.PENDING)
                 .build();
 
-        if (!event.isRequestModeration() || event.getParticipantLimit() == 0) {
-            request.setStatus(ParticipationRequestStatus.CONFIRMED);
-        }
+        ParticipationRequest saved = requestRepository.save(request);
+        outbox.recordStatusChange(eventId, null, saved.getStatus());
 
-        return ParticipationRequestMapper.toDto(requestRepository.save(request));
+        return ParticipationRequestMapper.toDto(saved);
     }
 
     @Override
     @Transactional
     public ParticipationRequestDto cancelRequest(Long userId, Long requestId) {
         getUserById(userId);
-        ParticipationRequest request = requestRepository.findById(requestId)
+        Long eventId = requestRepository.findEventIdById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found"));
+
+        // Статус читается под блокировкой счётчика события: параллельная модерация не подтвердит заявку
+        // между чтением и отменой, и изменение счётчика считается от актуального статуса
+        participantLimit.lock(eventId);
+        ParticipationRequest request = requestRepository.findByIdForUpdate(requestId)
                 .orElseThrow(() -> new NotFoundException("Request not found"));
 
         if (!request.getRequesterId().equals(userId)) {
             throw new ConflictException("User can cancel only their own requests.");
         }
 
+        participantLimit.add(request.getEventId(),
+                ConfirmedRequestsOutbox.confirmedDelta(request.getStatus(), ParticipationRequestStatus.CANCELED));
+        outbox.recordStatusChange(request.getEventId(), request.getStatus(), ParticipationRequestStatus.CANCELED);
         request.setStatus(ParticipationRequestStatus.CANCELED);
         return ParticipationRequestMapper.toDto(requestRepository.save(request));
     }
@@ -101,17 +123,96 @@ public class RequestServiceImpl implements RequestService {
                 .collect(Collectors.toList());
     }
 
+    // Меняются только перечисленные заявки события и только из PENDING; остальные заявки события не читаются
     @Override
     @Transactional
-    public void saveAll(@RequestBody List<ParticipationRequestDto> requests) {
-        List<ParticipationRequest> entities = requests.stream()
-                .map(ParticipationRequestMapper::toEntity)
-                .collect(Collectors.toList());
-        requestRepository.saveAll(entities);
+    public EventRequestStatusUpdateResult updateStatuses(RequestStatusBulkUpdateDto update) {
+        Long eventId = update.getEventId();
+        List<Long> requestIds = update.getRequestIds()
+                .stream()
+                .distinct()
+                .sorted()
+                .toList();
+
+        if (requestIds.isEmpty()) {
+            return new EventRequestStatusUpdateResult(List.of(), List.of());
+        }
+
+        // Модерации одного события выполняются по очереди, поэтому лимит не устаревает до UPDATE
+        long currentConfirmed = participantLimit.lock(eventId);
+
+        List<Long> toConfirm = List.of();
+        List<Long> toReject = requestIds;
+
+        if (update.getStatus() == RequestStatus.CONFIRMED) {
+            int limit = update.getParticipantLimit();
+            // Лимит действует и без модерации: такие заявки подтверждаются сразу, но могли остаться в PENDING
+            if (limit == 0) {
+                toConfirm = requestIds;
+            } else {
+                long available = limit - currentConfirmed;
+                if (available <= 0) {
+                    throw new ConflictException("The request limit for this event has been reached.");
+                }
+                // Сверх лимита заявки отклоняются в порядке id
+                toConfirm = requestIds.subList(0, (int) Math.min(available, requestIds.size()));
+            }
+            toReject = requestIds.subList(toConfirm.size(), requestIds.size());
+        }
+
+        List<Long> confirmed = toConfirm.isEmpty() ? List.of() : requestRepository.updatePendingStatus(toConfirm,
+                eventId, ParticipationRequestStatus.CONFIRMED.name());
+        List<Long> rejected = toReject.isEmpty() ? List.of() : requestRepository.updatePendingStatus(toReject,
+                eventId, ParticipationRequestStatus.REJECTED.name());
+        // Любой неподходящий id откатывает всю модерацию, поэтому нарезка по лимиту выше была верной
+        if (confirmed.size() + rejected.size() != requestIds.size()) {
+            throw notUpdated(requestIds, confirmed, rejected, eventId);
+        }
+        participantLimit.add(eventId, confirmed.size());
+        outbox.record(eventId, confirmed.size());
+
+        Set<Long> confirmedIds = Set.copyOf(confirmed);
+        Map<Boolean, List<ParticipationRequestDto>> byConfirmed = requestRepository.findDtosByIdIn(requestIds)
+                .stream()
+                .collect(Collectors.partitioningBy(dto -> confirmedIds.contains(dto.getId())));
+
+        return new EventRequestStatusUpdateResult(byConfirmed.get(true), byConfirmed.get(false));
+    }
+
+    @Override
+    public Map<Long, Long> getConfirmedCounts(Set<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return requestRepository.countByEventIdsAndStatus(eventIds, ParticipationRequestStatus.CONFIRMED)
+                .stream()
+                .collect(Collectors.toMap(EventRequestCount::getEventId, EventRequestCount::getCount));
+    }
+
+    // Причина выясняется только на этом пути: несуществующие и чужие id важнее заявок не в PENDING
+    private RuntimeException notUpdated(List<Long> requestIds, List<Long> confirmed, List<Long> rejected,
+                                        Long eventId) {
+        Set<Long> updated = new HashSet<>(confirmed);
+        updated.addAll(rejected);
+        List<Long> skipped = requestIds.stream()
+                .filter(id -> !updated.contains(id))
+                .toList();
+        Set<Long> found = requestRepository.findAllByIdInAndEventId(skipped, eventId)
+                .stream()
+                .map(ParticipationRequest::getId)
+                .collect(Collectors.toSet());
+        List<Long> missing = skipped.stream()
+                .filter(id -> !found.contains(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            return new NotFoundException("Requests with ids: " + missing + " not found for event with id: " + eventId);
+        }
+        return new ConflictException("The status can only be changed for requests that are in the pending state.");
     }
 
-    private UserDto getUserById(Long userId) {
-        return userClient.getByUserId(userId);
+    private void getUserById(Long userId) {
+        userCache.checkExists(userId);
     }
 
     private EventFullDto getEventById(Long eventId) {
@@ -0,0 +1,19 @@
+-- Исходная схема request-service. Базы, созданные раньше Hibernate (ddl-auto: update), уже содержат
+-- эти таблицы, поэтому миграция идемпотентна и для них ничего не меняет.
+
+-- Таблица заявок на участие
+CREATE TABLE IF NOT EXISTS participation_requests (
+    id BIGSERIAL PRIMARY KEY,
+    created TIMESTAMP,
+    status VARCHAR(255),
+    requester_id BIGINT NOT NULL,
+    event_id BIGINT NOT NULL
+);
+
+-- Outbox изменений числа подтверждённых заявок для event-service
+CREATE TABLE IF NOT EXISTS confirmed_request_changes (
+    id BIGSERIAL PRIMARY KEY,
+    event_id BIGINT NOT NULL,
+    delta BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL
+);
@@ -0,0 +1,10 @@
+-- CONCURRENTLY не блокирует запись в participation_requests; Flyway выполняет миграцию вне транзакции.
+-- Если построение прервётся, невалидный индекс нужно удалить вручную: IF NOT EXISTS его не пересоздаст.
+
+-- Заявки события и подсчёт подтверждённых заявок по списку событий
+CREATE INDEX CONCURRENTLY IF NOT EXISTS participation_requests_event_id_status_idx
+    ON participation_requests (event_id, status);
+
+-- Заявки пользователя и проверка повторной заявки на то же событие
+CREATE INDEX CONCURRENTLY IF NOT EXISTS participation_requests_requester_id_event_id_idx
+    ON participation_requests (requester_id, event_id);
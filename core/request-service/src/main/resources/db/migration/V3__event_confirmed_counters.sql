@@ -0,0 +1,14 @@
+-- Счётчик подтверждённых заявок события: лимит участников проверяется и резервируется
+-- условным UPDATE этой строки, а не подсчётом заявок перед вставкой.
+CREATE TABLE IF NOT EXISTS event_confirmed_counters (
+    event_id BIGINT PRIMARY KEY,
+    confirmed BIGINT NOT NULL
+);
+
+-- Начальные значения для событий, у которых уже есть подтверждённые заявки
+INSERT INTO event_confirmed_counters (event_id, confirmed)
+SELECT event_id, COUNT(*)
+FROM participation_requests
+WHERE status = 'CONFIRMED'
+GROUP BY event_id
+ON CONFLICT (event_id) DO NOTHING;
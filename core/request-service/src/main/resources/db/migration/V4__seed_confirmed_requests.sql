@@ -0,0 +1,15 @@
+-- Разовая передача в event-service текущего числа подтверждённых заявок: events.confirmed_requests
+-- у событий, созданных до появления outbox, начинался с 0. Абсолютное значение доставляется через outbox
+-- по порядку id, поэтому изменения, учтённые в нём, не применяются повторно, а более поздние идут после него.
+
+-- Изменение с absolute = true задаёт значение счётчика вместо прибавления delta
+ALTER TABLE confirmed_request_changes ADD COLUMN IF NOT EXISTS absolute BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Смена статуса заявки сначала обновляет счётчик события и только потом пишет outbox:
+-- пока таблица заблокирована, ни одно изменение не проскочит между снимком и записями ниже
+LOCK TABLE event_confirmed_counters IN SHARE MODE;
+
+INSERT INTO confirmed_request_changes (event_id, delta, absolute, created)
+SELECT event_id, confirmed, TRUE, now()
+FROM event_confirmed_counters
+ORDER BY event_id;
@@ -0,0 +1,47 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * База для тестов на PostgreSQL. По умолчанию поднимает один контейнер на все тесты модуля
+ * и пропускает тесты, если Docker недоступен. С -Dtest.postgres.url (и при необходимости
+ * -Dtest.postgres.username/password) тесты идут на готовой базе.
+ */
+public abstract class PostgresContainerTest {
+
+    private static final String URL = System.getProperty("test.postgres.url");
+    private static PostgreSQLContainer<?> container;
+
+    @BeforeAll
+    static void requirePostgres() {
+        Assumptions.assumeTrue(URL != null || DockerClientFactory.instance().isDockerAvailable(),
+                "Docker is not available and test.postgres.url is not set");
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        if (URL != null) {
+            registry.add("spring.datasource.url", () -> URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.postgres.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.postgres.password", ""));
+            return;
+        }
+        PostgreSQLContainer<?> postgres = startContainer();
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private static synchronized PostgreSQLContainer<?> startContainer() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16.1");
+            container.start();
+        }
+        return container;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.client.InternalEventFeignClient;
+import ru.practicum.client.UserExistenceCache;
+import ru.practicum.dto.EventFullDto;
+import ru.practicum.dto.UserShortDto;
+import ru.practicum.enums.EventState;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.limit.ParticipantLimit;
+import ru.practicum.outbox.ConfirmedRequestsOutbox;
+import ru.practicum.service.impl.RequestServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Гонка заявок на событие без модерации: запросов намного больше лимита, все стартуют одновременно
+ * в отдельных транзакциях, а строки счётчика в начале нет. Подтверждённых заявок и значение счётчика
+ * должно быть ровно столько, сколько мест.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RequestServiceImpl.class, ParticipantLimit.class, ConfirmedRequestsOutbox.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ParticipantLimitConcurrencyTest extends PostgresContainerTest {
+
+    private static final long EVENT_ID = 2_000_001L;
+    private static final int LIMIT = 10;
+    private static final int REQUESTS = 300;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private UserExistenceCache userCache;
+
+    @MockBean
+    private InternalEventFeignClient eventClient;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        when(eventClient.getEventByEventId(EVENT_ID)).thenReturn(EventFullDto.builder()
+                .id(EVENT_ID)
+                .participantLimit(LIMIT)
+                .requestModeration(false)
+                .state(EventState.PUBLISHED)
+                .initiator(new UserShortDto(1L, "Инициатор"))
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM participation_requests WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM event_confirmed_counters WHERE event_id = ?", EVENT_ID);
+        // Outbox успевает разослать и удалить часть строк по расписанию, поэтому он здесь не проверяется
+        jdbcTemplate.update("DELETE FROM confirmed_request_changes WHERE event_id = ?", EVENT_ID);
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedLimit() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < REQUESTS; i++) {
+                long requesterId = 1_000L + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        requestService.addRequest(requesterId, EVENT_ID);
+                        accepted.incrementAndGet();
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(LIMIT, accepted.get());
+        assertEquals(REQUESTS - LIMIT, rejected.get());
+        assertEquals(LIMIT, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM participation_requests"
+                + " WHERE event_id = ? AND status = 'CONFIRMED'", Long.class, EVENT_ID));
+        assertEquals(LIMIT, jdbcTemplate.queryForObject("SELECT confirmed FROM event_confirmed_counters"
+                + " WHERE event_id = ?", Long.class, EVENT_ID));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.client.InternalEventFeignClient;
+import ru.practicum.client.UserExistenceCache;
+import ru.practicum.dto.EventRequestStatusUpdateResult;
+import ru.practicum.dto.ParticipationRequestDto;
+import ru.practicum.dto.RequestStatusBulkUpdateDto;
+import ru.practicum.entity.ParticipationRequest;
+import ru.practicum.enums.ParticipationRequestStatus;
+import ru.practicum.enums.RequestStatus;
+import ru.practicum.exception.ConflictException;
+import ru.practicum.exception.NotFoundException;
+import ru.practicum.limit.ParticipantLimit;
+import ru.practicum.outbox.ConfirmedRequestsOutbox;
+import ru.practicum.service.impl.RequestServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RequestServiceImpl.class, ParticipantLimit.class, ConfirmedRequestsOutbox.class})
+class RequestStatusUpdateTest extends PostgresContainerTest {
+
+    private static final long EVENT_ID = 1_000_001L;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserExistenceCache userCache;
+
+    @MockBean
+    private InternalEventFeignClient eventClient;
+
+    @Test
+    void confirmsUpToLimitAndRejectsTheRestWithoutLoadingEntities() {
+        Long first = persist(EVENT_ID, ParticipationRequestStatus.PENDING);
+        Long second = persist(EVENT_ID, ParticipationRequestStatus.PENDING);
+        Long third = persist(EVENT_ID, ParticipationRequestStatus.PENDING);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        EventRequestStatusUpdateResult result = requestService.updateStatuses(update(
+                List.of(third, first, second), RequestStatus.CONFIRMED, 2));
+
+        assertEquals(List.of(first, second), ids(result.getConfirmedRequests()));
+        assertEquals(List.of(third), ids(result.getRejectedRequests()));
+        assertEquals(ParticipationRequestStatus.REJECTED, result.getRejectedRequests().getFirst().getStatus());
+        assertEquals(0, statistics.getEntityLoadCount());
+        entityManager.clear();
+        assertEquals(ParticipationRequestStatus.CONFIRMED,
+                entityManager.find(ParticipationRequest.class, second).getStatus());
+    }
+
+    @Test
+    void unknownOrForeignIdFailsWithNotFound() {
+        Long own = persist(EVENT_ID, ParticipationRequestStatus.PENDING);
+        Long foreign = persist(EVENT_ID + 1, ParticipationRequestStatus.PENDING);
+
+        NotFoundException e = assertThrows(NotFoundException.class, () -> requestService.updateStatuses(
+                update(List.of(own, foreign), RequestStatus.REJECTED, 0)));
+        assertEquals("Requests with ids: [" + foreign + "] not found for event with id: " + EVENT_ID, e.getMessage());
+    }
+
+    @Test
+    void requestOutOfPendingFailsWithConflict() {
+        Long pending = persist(EVENT_ID, ParticipationRequestStatus.PENDING);
+        Long confirmed = persist(EVENT_ID, ParticipationRequestStatus.CONFIRMED);
+
+        assertThrows(ConflictException.class, () -> requestService.updateStatuses(
+                update(List.of(pending, confirmed), RequestStatus.CONFIRMED, 0)));
+    }
+
+    private Long persist(long eventId, ParticipationRequestStatus status) {
+        return entityManager.persistAndFlush(ParticipationRequest.builder()
+                .created(LocalDateTime.now())
+                .status(status)
+                .requesterId(7L)
+                .eventId(eventId)
+                .build()).getId();
+    }
+
+    private static RequestStatusBulkUpdateDto update(List<Long> ids, RequestStatus status, int limit) {
+        return RequestStatusBulkUpdateDto.builder()
+                .eventId(EVENT_ID)
+                .requestIds(ids)
+                .status(status)
+                .participantLimit(limit)
+                .build();
+    }
+
+    private static List<Long> ids(List<ParticipationRequestDto> requests) {
+        return requests.stream().map(ParticipationRequestDto::getId).toList();
+    }
+}
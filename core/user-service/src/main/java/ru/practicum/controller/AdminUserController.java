@@ -6,11 +6,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.NewUserRequest;
+import ru.practicum.dto.UserDeletionDto;
 import ru.practicum.dto.UserDto;
+import ru.practicum.dto.UserShortDto;
 import ru.practicum.dto.params.UserParamsAdmin;
 import ru.practicum.service.UserService;
 
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -26,6 +29,32 @@ public class AdminUserController {
         return ResponseEntity.ok(userService.getUser(userId));
     }
 
+    @GetMapping("/ids")
+    public ResponseEntity<List<Long>> getIds(@RequestParam(defaultValue = "0") long after,
+                                             @RequestParam(defaultValue = "1000") int size) {
+        log.info("AdminUserController - Getting user ids after: {}", after);
+        return ResponseEntity.ok(userService.getUserIds(after, size));
+    }
+
+    @GetMapping("/deletions")
+    public ResponseEntity<List<UserDeletionDto>> getDeletions(@RequestParam(defaultValue = "0") long after,
+                                                              @RequestParam(defaultValue = "500") int size) {
+        log.info("AdminUserController - Getting user deletions after: {}", after);
+        return ResponseEntity.ok(userService.getDeletions(after, size));
+    }
+
+    @GetMapping("/deletions/last")
+    public ResponseEntity<Long> getLastDeletionId() {
+        log.info("AdminUserController - Getting last user deletion id");
+        return ResponseEntity.ok(userService.getLastDeletionId());
+    }
+
+    @PostMapping("/short")
+    public ResponseEntity<List<UserShortDto>> getShortByIds(@RequestBody Set<Long> ids) {
+        log.info("AdminUserController - Getting short users by ids: {}", ids);
+        return ResponseEntity.ok(userService.getShortUsers(ids));
+    }
+
     @PostMapping
     public ResponseEntity<UserDto> create(@RequestBody @Valid NewUserRequest request) {
         log.info("AdminUserController - Creating new user: {}", request);
@@ -3,6 +3,7 @@ package ru.practicum.mapper;
 
 import ru.practicum.dto.NewUserRequest;
 import ru.practicum.dto.UserDto;
+import ru.practicum.dto.UserShortDto;
 import ru.practicum.model.User;
 
 public class UserMapper {
@@ -15,6 +16,13 @@ public class UserMapper {
                 .build();
     }
 
+    public static UserShortDto toShortDto(User user) {
+        return UserShortDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .build();
+    }
+
     public static User toEntity(NewUserRequest request) {
         return User.builder()
                 .name(request.getName())
@@ -0,0 +1,24 @@
+package ru.practicum.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.model.UserDeletion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserDeletionRepository extends JpaRepository<UserDeletion, Long> {
+
+    List<UserDeletion> findByIdGreaterThanOrderById(Long after, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(d.id), 0) FROM UserDeletion AS d")
+    long findLastId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserDeletion AS d WHERE d.deletedOn < :before")
+    int deleteDeletedBefore(LocalDateTime before);
+}
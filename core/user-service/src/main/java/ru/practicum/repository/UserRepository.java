@@ -1,6 +1,9 @@
 package ru.practicum.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.model.User;
 
 import java.util.List;
@@ -10,4 +13,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findAllByIdIn(List<Long> ids);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User AS u WHERE u.id > :after ORDER BY u.id")
+    List<Long> findIdsAfter(long after, Limit limit);
+
+    // Список вместо Page: страница без дополнительного count-запроса
+    List<User> findAllBy(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.repository.UserDeletionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Удаляет записи журнала удалений пользователей старше срока хранения.
+ * Кэши существования в других сервисах держат пользователя не дольше user-cache.ttl,
+ * поэтому запись, которая старше этого срока, уже ничего не сбрасывает.
+ */
+@Slf4j
+@Component
+public class UserDeletionsCleaner {
+
+    private final UserDeletionRepository userDeletionRepository;
+    private final Duration retention;
+
+    public UserDeletionsCleaner(UserDeletionRepository userDeletionRepository,
+                                @Value("${user-deletions.retention:1d}") Duration retention) {
+        this.userDeletionRepository = userDeletionRepository;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${user-deletions.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = userDeletionRepository.deleteDeletedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Удалено {} записей журнала удалений пользователей", deleted);
+        }
+    }
+}
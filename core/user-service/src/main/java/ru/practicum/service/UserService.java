@@ -1,10 +1,13 @@
 package ru.practicum.service;
 
 import ru.practicum.dto.NewUserRequest;
+import ru.practicum.dto.UserDeletionDto;
 import ru.practicum.dto.UserDto;
+import ru.practicum.dto.UserShortDto;
 import ru.practicum.dto.params.UserParamsAdmin;
 
 import java.util.List;
+import java.util.Set;
 
 public interface UserService {
 
@@ -14,6 +17,14 @@ public interface UserService {
 
     List<UserDto> getUsers(UserParamsAdmin param);
 
+    List<UserShortDto> getShortUsers(Set<Long> ids);
+
     void deleteUser(Long userId);
 
+    List<Long> getUserIds(long after, int size);
+
+    List<UserDeletionDto> getDeletions(long after, int size);
+
+    long getLastDeletionId();
+
 }
\ No newline at end of file
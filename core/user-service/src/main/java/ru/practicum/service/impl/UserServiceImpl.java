@@ -1,20 +1,27 @@
 package ru.practicum.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.NewUserRequest;
+import ru.practicum.dto.UserDeletionDto;
 import ru.practicum.dto.UserDto;
+import ru.practicum.dto.UserShortDto;
 import ru.practicum.dto.params.UserParamsAdmin;
 import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.mapper.UserMapper;
 import ru.practicum.model.User;
+import ru.practicum.model.UserDeletion;
+import ru.practicum.repository.UserDeletionRepository;
 import ru.practicum.repository.UserRepository;
 import ru.practicum.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +30,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserDeletionRepository userDeletionRepository;
 
     @Override
     @Transactional
@@ -46,19 +54,51 @@ public class UserServiceImpl implements UserService {
     public List<UserDto> getUsers(UserParamsAdmin param) {
         List<User> users = (param.getIds() != null && !param.getIds().isEmpty())
                 ? userRepository.findAllByIdIn(param.getIds())
-                : userRepository.findAll(PageRequest.of(param.getFrom() / param.getSize(),
-                param.getSize())).getContent();
+                : userRepository.findAllBy(PageRequest.of(param.getFrom() / param.getSize(), param.getSize()));
 
         return users.stream()
                 .map(UserMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserShortDto> getShortUsers(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllByIdIn(List.copyOf(ids))
+                .stream()
+                .map(UserMapper::toShortDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public void deleteUser(Long userId) {
-        userRepository.findById(userId)
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("The user with id: " + userId + " not found!"));
-        userRepository.deleteById(userId);
+        userRepository.delete(user);
+        userDeletionRepository.save(UserDeletion.builder()
+                .userId(userId)
+                .deletedOn(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public List<Long> getUserIds(long after, int size) {
+        return userRepository.findIdsAfter(after, Limit.of(size));
+    }
+
+    @Override
+    public List<UserDeletionDto> getDeletions(long after, int size) {
+        return userDeletionRepository.findByIdGreaterThanOrderById(after, Limit.of(size))
+                .stream()
+                .map(deletion -> new UserDeletionDto(deletion.getId(), deletion.getUserId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long getLastDeletionId() {
+        return userDeletionRepository.findLastId();
     }
 }
\ No newline at end of file
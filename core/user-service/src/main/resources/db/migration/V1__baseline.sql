@@ -0,0 +1,16 @@
+-- Исходная схема user-service. Базы, созданные раньше Hibernate (ddl-auto: update), уже содержат
+-- эти таблицы, поэтому миграция идемпотентна и для них ничего не меняет.
+
+-- Таблица пользователей
+CREATE TABLE IF NOT EXISTS users (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(250) NOT NULL,
+    email VARCHAR(254) NOT NULL UNIQUE
+);
+
+-- Журнал удалений пользователей, который опрашивают кэши существования в других сервисах
+CREATE TABLE IF NOT EXISTS user_deletions (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    deleted_on TIMESTAMP NOT NULL
+);
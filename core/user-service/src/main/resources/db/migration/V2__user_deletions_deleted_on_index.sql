@@ -0,0 +1,4 @@
+-- Удаление записей журнала удалений старше срока хранения (UserDeletionsCleaner).
+-- CONCURRENTLY не блокирует запись; Flyway выполняет миграцию вне транзакции.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS user_deletions_deleted_on_idx
+    ON user_deletions (deleted_on);
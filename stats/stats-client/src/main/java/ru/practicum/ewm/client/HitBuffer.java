@@ -0,0 +1,178 @@
+package ru.practicum.ewm.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.practicum.ewm.dto.EndpointHitDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченная очередь хитов с фоновым отправителем.
+ * Пачка уходит одним вызовом {@code sink}, как только набран {@code batchSize}
+ * или истёк {@code flushInterval} с момента первого хита в пачке.
+ * {@link #close()} дожидается выхода отправителя и только потом досылает остаток очереди,
+ * поэтому пачки не перемешиваются и не отправляются дважды.
+ */
+public class HitBuffer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(HitBuffer.class);
+
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final Consumer<List<EndpointHitDto>> sink;
+    private final HitBufferSettings settings;
+    private final Thread flusher;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public HitBuffer(HitBufferSettings settings, Consumer<List<EndpointHitDto>> sink) {
+        this.settings = settings;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(settings.getCapacity());
+        this.flusher = new Thread(this::flushLoop, "stat-hit-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public void offer(EndpointHitDto hit) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        if (settings.getOverflowPolicy() == HitOverflowPolicy.BLOCK) {
+            try {
+                queue.put(hit);
+                queued.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+
+        while (!queue.offer(hit)) {
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        queued.incrementAndGet();
+    }
+
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    public long getFlushedCount() {
+        return flushed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    // Отправитель прерывается только под flushLock, то есть пока он ждёт хиты, а не отправляет пачку
+    @Override
+    public void close() {
+        running = false;
+        flushLock.lock();
+        try {
+            flusher.interrupt();
+        } finally {
+            flushLock.unlock();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                flusher.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        drainRemaining();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            List<EndpointHitDto> batch = new ArrayList<>(settings.getBatchSize());
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Остановка: собранное отправляется, остаток очереди досылает close()
+            }
+            if (!batch.isEmpty()) {
+                flushFromFlusher(batch);
+            }
+        }
+    }
+
+    // Прерывание, пришедшее между сбором и отправкой, сбрасывается, чтобы не оборвать вызов sink
+    private void flushFromFlusher(List<EndpointHitDto> batch) {
+        flushLock.lock();
+        try {
+            Thread.interrupted();
+            flush(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void collectBatch(List<EndpointHitDto> batch) throws InterruptedException {
+        long intervalMillis = settings.getFlushInterval().toMillis();
+        EndpointHitDto first = queue.poll(intervalMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.currentTimeMillis() + intervalMillis;
+        while (batch.size() < settings.getBatchSize()) {
+            queue.drainTo(batch, settings.getBatchSize() - batch.size());
+            long remaining = deadline - System.currentTimeMillis();
+            if (batch.size() >= settings.getBatchSize() || remaining <= 0) {
+                return;
+            }
+            EndpointHitDto next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void drainRemaining() {
+        List<EndpointHitDto> batch = new ArrayList<>(settings.getBatchSize());
+        while (queue.drainTo(batch, settings.getBatchSize()) > 0) {
+            flush(batch);
+            batch = new ArrayList<>(settings.getBatchSize());
+        }
+    }
+
+    private void flush(List<EndpointHitDto> batch) {
+        try {
+            sink.accept(batch);
+            flushed.addAndGet(batch.size());
+        } catch (Exception e) {
+            dropped.addAndGet(batch.size());
+            log.warn("Не удалось отправить {} хитов в сервис статистики: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.ewm.client;
+
+import java.time.Duration;
+
+public class HitBufferSettings {
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final HitOverflowPolicy overflowPolicy;
+
+    public HitBufferSettings(int capacity, int batchSize, Duration flushInterval, HitOverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Hit buffer capacity and batch size must be positive");
+        }
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Hit buffer flush interval must be positive");
+        }
+        this.capacity = capacity;
+        this.batchSize = Math.min(batchSize, capacity);
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : HitOverflowPolicy.DROP_OLDEST;
+    }
+
+    public static HitBufferSettings defaults() {
+        return new HitBufferSettings(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL,
+                HitOverflowPolicy.DROP_OLDEST);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public HitOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
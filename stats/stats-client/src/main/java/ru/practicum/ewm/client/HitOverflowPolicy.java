@@ -0,0 +1,6 @@
+package ru.practicum.ewm.client;
+
+public enum HitOverflowPolicy {
+    DROP_OLDEST, // при заполненной очереди вытесняется самый старый хит
+    BLOCK        // вызывающий поток ждёт освобождения места в очереди
+}
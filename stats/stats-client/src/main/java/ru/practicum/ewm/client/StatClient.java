@@ -1,37 +1,62 @@
 package ru.practicum.ewm.client;
 
-import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.retry.backoff.FixedBackOffPolicy;
-import org.springframework.retry.policy.MaxAttemptsRetryPolicy;
-import org.springframework.retry.support.RetryTemplate;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import ru.practicum.ewm.dto.EndpointHitDto;
 import ru.practicum.ewm.dto.ViewStatsDto;
 
-import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.List;
 
-public class StatClient {
-    private final DiscoveryClient discoveryClient;
-    private final String statsServerId;
+public class StatClient implements AutoCloseable {
+    public static final Duration DEFAULT_DISCOVERY_REFRESH_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final StatsServerInstances instances;
+    private final RestClient restClient;
+    private final HitBuffer hitBuffer;
 
     public StatClient(DiscoveryClient discoveryClient, String statsServerId) {
-        this.discoveryClient = discoveryClient;
-        this.statsServerId = statsServerId;
+        this(discoveryClient, statsServerId, HitBufferSettings.defaults(), DEFAULT_DISCOVERY_REFRESH_INTERVAL);
+    }
+
+    public StatClient(DiscoveryClient discoveryClient, String statsServerId, HitBufferSettings hitBufferSettings,
+                      Duration discoveryRefreshInterval) {
+        this.instances = new StatsServerInstances(discoveryClient, statsServerId, discoveryRefreshInterval);
+        this.restClient = createRestClient();
+        this.hitBuffer = new HitBuffer(hitBufferSettings, this::sendHits);
     }
 
+    // Хит ставится в очередь и уходит в сервис статистики пачкой из фонового потока
     public void sendHit(EndpointHitDto hitDto) {
-        restClient().post()
-                .uri("/hit")
-                .body(hitDto)
+        hitBuffer.offer(hitDto);
+    }
+
+    public void sendHits(List<EndpointHitDto> hits) {
+        if (hits == null || hits.isEmpty()) {
+            return;
+        }
+        restClient.post()
+                .uri(instances.next() + "/hit/batch")
+                .body(hits)
                 .retrieve()
                 .toBodilessEntity();
     }
 
     public List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique) {
+        return getStats(start, end, uris, String.valueOf(unique));
+    }
+
+    // Оценка уникальных посещений по HyperLogLog: быстрее точного подсчёта, ошибка около 0.81%
+    public List<ViewStatsDto> getApproxUniqueStats(String start, String end, List<String> uris) {
+        return getStats(start, end, uris, "approx");
+    }
+
+    private List<ViewStatsDto> getStats(String start, String end, List<String> uris, String unique) {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromPath("/stats")
                 .queryParam("unique", unique);
 
@@ -45,9 +70,9 @@ public class StatClient {
             uriBuilder.queryParam("uris", uris.toArray());
         }
 
-        String uri = uriBuilder.build().toUriString();
+        String uri = instances.next() + uriBuilder.build().toUriString();
 
-        List<ViewStatsDto> response = restClient().get()
+        List<ViewStatsDto> response = restClient.get()
                 .uri(uri)
                 .retrieve()
                 .body(new ParameterizedTypeReference<>() {
@@ -56,42 +81,37 @@ public class StatClient {
         return response != null ? response : List.of();
     }
 
-    private RetryTemplate getRetryTemplate() {
-        RetryTemplate retryTemplate = new RetryTemplate();
-
-        FixedBackOffPolicy fixedBackOffPolicy = new FixedBackOffPolicy();
-        fixedBackOffPolicy.setBackOffPeriod(3000L);
-        retryTemplate.setBackOffPolicy(fixedBackOffPolicy);
-
-        MaxAttemptsRetryPolicy retryPolicy = new MaxAttemptsRetryPolicy();
-        retryPolicy.setMaxAttempts(3);
-        retryTemplate.setRetryPolicy(retryPolicy);
-
-        return retryTemplate;
+    public long getQueuedHits() {
+        return hitBuffer.getQueuedCount();
     }
 
-    private ServiceInstance getInstance() {
-        try {
-            return discoveryClient
-                    .getInstances(statsServerId)
-                    .getFirst();
-        } catch (Exception exception) {
-            throw new RuntimeException(
-                    "Ошибка обнаружения адреса сервиса статистики с id: " + statsServerId,
-                    exception
-            );
-        }
+    public long getFlushedHits() {
+        return hitBuffer.getFlushedCount();
     }
 
-    private RestClient restClient() {
+    public long getDroppedHits() {
+        return hitBuffer.getDroppedCount();
+    }
 
-        URI baseUri = makeUri();
+    public int getPendingHits() {
+        return hitBuffer.getPendingCount();
+    }
 
-        return RestClient.builder().baseUrl(baseUri.toString()).build();
+    @Override
+    public void close() {
+        hitBuffer.close();
+        instances.close();
     }
 
-    private URI makeUri() {
-        ServiceInstance instance = getRetryTemplate().execute(cxt -> getInstance());
-        return URI.create("http://" + instance.getHost() + ":" + instance.getPort());
+    // Один HttpClient на весь клиент: JDK держит пул keep-alive соединений к каждому экземпляру
+    private static RestClient createRestClient() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+
+        return RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory(httpClient))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package ru.practicum.ewm.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.retry.backoff.FixedBackOffPolicy;
+import org.springframework.retry.policy.MaxAttemptsRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Кэш адресов сервиса статистики. Список обновляется в фоне,
+ * запросы распределяются по экземплярам по кругу.
+ */
+public class StatsServerInstances implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(StatsServerInstances.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final String statsServerId;
+    private final RetryTemplate retryTemplate;
+    private final ScheduledExecutorService refresher;
+
+    private final AtomicReference<List<URI>> instances = new AtomicReference<>(List.of());
+    private final AtomicInteger position = new AtomicInteger();
+
+    public StatsServerInstances(DiscoveryClient discoveryClient, String statsServerId, Duration refreshInterval) {
+        this.discoveryClient = discoveryClient;
+        this.statsServerId = statsServerId;
+        this.retryTemplate = createRetryTemplate();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "stats-server-discovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public URI next() {
+        List<URI> current = instances.get();
+        if (current.isEmpty()) {
+            current = retryTemplate.execute(cxt -> refresh());
+        }
+        return current.get(Math.floorMod(position.getAndIncrement(), current.size()));
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Не удалось обновить адреса сервиса статистики с id {}: {}", statsServerId, e.getMessage());
+        }
+    }
+
+    private List<URI> refresh() {
+        List<URI> discovered;
+        try {
+            discovered = discoveryClient.getInstances(statsServerId)
+                    .stream()
+                    .map(StatsServerInstances::toUri)
+                    .toList();
+        } catch (Exception exception) {
+            throw new RuntimeException(
+                    "Ошибка обнаружения адреса сервиса статистики с id: " + statsServerId,
+                    exception
+            );
+        }
+
+        if (discovered.isEmpty()) {
+            throw new RuntimeException("Не найдено ни одного экземпляра сервиса статистики с id: " + statsServerId);
+        }
+
+        instances.set(discovered);
+        return discovered;
+    }
+
+    private static URI toUri(ServiceInstance instance) {
+        return URI.create("http://" + instance.getHost() + ":" + instance.getPort());
+    }
+
+    private static RetryTemplate createRetryTemplate() {
+        RetryTemplate retryTemplate = new RetryTemplate();
+
+        FixedBackOffPolicy fixedBackOffPolicy = new FixedBackOffPolicy();
+        fixedBackOffPolicy.setBackOffPeriod(3000L);
+        retryTemplate.setBackOffPolicy(fixedBackOffPolicy);
+
+        MaxAttemptsRetryPolicy retryPolicy = new MaxAttemptsRetryPolicy();
+        retryPolicy.setMaxAttempts(3);
+        retryTemplate.setRetryPolicy(retryPolicy);
+
+        return retryTemplate;
+    }
+}
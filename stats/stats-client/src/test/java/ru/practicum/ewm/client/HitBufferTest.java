@@ -0,0 +1,220 @@
+package ru.practicum.ewm.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.dto.EndpointHitDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitBufferTest {
+
+    private static final Duration LONG_INTERVAL = Duration.ofHours(1);
+
+    private final BlockingQueue<List<EndpointHitDto>> batches = new LinkedBlockingQueue<>();
+    private HitBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    void flushesAsSoonAsBatchSizeIsReached() throws InterruptedException {
+        buffer = new HitBuffer(settings(100, 10, LONG_INTERVAL, HitOverflowPolicy.DROP_OLDEST), batches::add);
+
+        IntStream.range(0, 10).forEach(i -> buffer.offer(hit(i)));
+
+        List<EndpointHitDto> batch = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch, "A full batch must be sent without waiting for the flush interval");
+        assertEquals(uris(0, 10), uris(batch));
+        assertEquals(10, buffer.getFlushedCount());
+    }
+
+    @Test
+    void flushesPartialBatchAfterInterval() throws InterruptedException {
+        buffer = new HitBuffer(settings(100, 50, Duration.ofMillis(100), HitOverflowPolicy.DROP_OLDEST),
+                batches::add);
+
+        IntStream.range(0, 3).forEach(i -> buffer.offer(hit(i)));
+
+        List<EndpointHitDto> batch = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(batch, "A partial batch must be sent once the flush interval expires");
+        assertEquals(uris(0, 3), uris(batch));
+    }
+
+    @Test
+    void doesNotFlushPartialBatchBeforeInterval() throws InterruptedException {
+        buffer = new HitBuffer(settings(100, 50, LONG_INTERVAL, HitOverflowPolicy.DROP_OLDEST), batches::add);
+
+        IntStream.range(0, 3).forEach(i -> buffer.offer(hit(i)));
+
+        assertNull(batches.poll(300, TimeUnit.MILLISECONDS));
+        assertEquals(0, buffer.getFlushedCount());
+    }
+
+    @Test
+    void dropOldestEvictsOldestHitsWhenFull() throws InterruptedException {
+        StalledSink sink = new StalledSink();
+        buffer = new HitBuffer(settings(5, 1, LONG_INTERVAL, HitOverflowPolicy.DROP_OLDEST), sink);
+
+        buffer.offer(hit(0));
+        sink.awaitStalled();
+        IntStream.range(1, 8).forEach(i -> buffer.offer(hit(i)));
+
+        assertEquals(2, buffer.getDroppedCount());
+        assertEquals(5, buffer.getPendingCount());
+        assertEquals(8, buffer.getQueuedCount());
+
+        sink.release();
+        buffer.close();
+        List<String> sent = sink.sentUris();
+        assertEquals(List.of("/events/0", "/events/3", "/events/4", "/events/5", "/events/6", "/events/7"), sent);
+    }
+
+    @Test
+    void blockWaitsForFreeSpaceInsteadOfDropping() throws InterruptedException {
+        StalledSink sink = new StalledSink();
+        buffer = new HitBuffer(settings(2, 1, LONG_INTERVAL, HitOverflowPolicy.BLOCK), sink);
+
+        buffer.offer(hit(0));
+        sink.awaitStalled();
+        buffer.offer(hit(1));
+        buffer.offer(hit(2));
+
+        Thread producer = new Thread(() -> buffer.offer(hit(3)));
+        producer.start();
+        producer.join(300);
+        assertTrue(producer.isAlive(), "The producer must wait while the queue is full");
+
+        sink.release();
+        producer.join(5_000);
+        assertFalse(producer.isAlive());
+
+        buffer.close();
+        assertEquals(0, buffer.getDroppedCount());
+        assertEquals(uris(0, 4), sink.sentUris());
+    }
+
+    @Test
+    void closeWaitsForInFlightFlushAndSendsRestOnce() throws InterruptedException {
+        StalledSink sink = new StalledSink();
+        buffer = new HitBuffer(settings(1_000, 10, Duration.ofMillis(50), HitOverflowPolicy.DROP_OLDEST), sink);
+
+        IntStream.range(0, 10).forEach(i -> buffer.offer(hit(i)));
+        sink.awaitStalled();
+        IntStream.range(10, 35).forEach(i -> buffer.offer(hit(i)));
+
+        Thread closer = new Thread(buffer::close);
+        closer.start();
+        closer.join(300);
+        assertTrue(closer.isAlive(), "close() must wait for the batch that is being sent");
+
+        sink.release();
+        closer.join(5_000);
+        assertFalse(closer.isAlive());
+
+        assertEquals(uris(0, 35), sink.sentUris());
+        assertEquals(35, buffer.getFlushedCount());
+        assertEquals(0, buffer.getPendingCount());
+    }
+
+    @Test
+    void failedFlushIsCountedAsDropped() throws InterruptedException {
+        CountDownLatch attempted = new CountDownLatch(1);
+        buffer = new HitBuffer(settings(100, 5, LONG_INTERVAL, HitOverflowPolicy.DROP_OLDEST), batch -> {
+            attempted.countDown();
+            throw new IllegalStateException("stats-server is down");
+        });
+
+        IntStream.range(0, 5).forEach(i -> buffer.offer(hit(i)));
+
+        assertTrue(attempted.await(5, TimeUnit.SECONDS));
+        buffer.close();
+        assertEquals(5, buffer.getDroppedCount());
+        assertEquals(0, buffer.getFlushedCount());
+    }
+
+    @Test
+    void hitsOfferedAfterCloseAreDropped() {
+        buffer = new HitBuffer(settings(100, 10, Duration.ofMillis(50), HitOverflowPolicy.DROP_OLDEST), batches::add);
+        buffer.close();
+
+        buffer.offer(hit(0));
+
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals(0, buffer.getQueuedCount());
+    }
+
+    private static HitBufferSettings settings(int capacity, int batchSize, Duration interval,
+                                              HitOverflowPolicy policy) {
+        return new HitBufferSettings(capacity, batchSize, interval, policy);
+    }
+
+    private static EndpointHitDto hit(int i) {
+        return EndpointHitDto.builder()
+                .app("main-service")
+                .uri("/events/" + i)
+                .ip("10.0.0.1")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static List<String> uris(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "/events/" + i).toList();
+    }
+
+    private static List<String> uris(List<EndpointHitDto> batch) {
+        return batch.stream().map(EndpointHitDto::getUri).toList();
+    }
+
+    // Первая пачка задерживается до release(), чтобы очередь заполнялась, пока отправитель занят
+    private static class StalledSink implements Consumer<List<EndpointHitDto>> {
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<EndpointHitDto> sent = new ArrayList<>();
+
+        @Override
+        public void accept(List<EndpointHitDto> batch) {
+            stalled.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (sent) {
+                sent.addAll(batch);
+            }
+        }
+
+        void awaitStalled() throws InterruptedException {
+            assertTrue(stalled.await(5, TimeUnit.SECONDS), "The flusher did not pick up the first batch");
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        List<String> sentUris() {
+            synchronized (sent) {
+                return uris(new ArrayList<>(sent));
+            }
+        }
+    }
+}
@@ -3,9 +3,11 @@ package ru.practicum.ewm.server.controller;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import ru.practicum.ewm.server.exception.ApiError;
 
 import java.io.PrintWriter;
@@ -37,6 +39,17 @@ public class ErrorHandler {
         return new ApiError(status, "Validation error: ", e.getMessage(), stackTrace);
     }
 
+    @ExceptionHandler({MethodArgumentNotValidException.class, HandlerMethodValidationException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleInvalidArgument(final Exception e) {
+        log.error("Error 400 (invalid argument) {}", e.getMessage(), e);
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new PrintWriter(sw);
+        e.printStackTrace(pw);
+        String stackTrace = sw.toString();
+        return new ApiError(HttpStatus.BAD_REQUEST, "Validation error: ", e.getMessage(), stackTrace);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleIllegalArgument(final IllegalArgumentException e) {
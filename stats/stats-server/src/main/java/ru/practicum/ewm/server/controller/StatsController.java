@@ -1,37 +1,68 @@
 package ru.practicum.ewm.server.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.ewm.dto.EndpointHitDto;
 import ru.practicum.ewm.dto.ViewStatsDto;
+import ru.practicum.ewm.server.model.UniqueMode;
 import ru.practicum.ewm.server.service.StatsService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 @Slf4j
 @RestController
+@Validated
 @RequiredArgsConstructor
 public class StatsController {
 
     private final StatsService service;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
-    public void saveHit(@RequestBody EndpointHitDto hitDto) {
+    public void saveHit(@RequestBody @Valid EndpointHitDto hitDto) {
         log.info("StatsController - saving information about the request to the endpoint:  {}", hitDto);
         service.save(hitDto);
     }
 
+    @PostMapping(value = "/hit/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveHits(@RequestBody List<@Valid EndpointHitDto> hits) {
+        log.info("StatsController - saving a batch of {} endpoint hits", hits.size());
+        service.saveAll(hits);
+    }
+
+    // NDJSON читается потоком и пишется кусками, поэтому размер тела запроса не ограничен памятью.
+    // Поток принимается целиком или не принимается вовсе
+    @PostMapping(value = "/hit/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveHitStream(InputStream body) throws IOException {
+        try (MappingIterator<EndpointHitDto> hits = objectMapper.readerFor(EndpointHitDto.class).readValues(body)) {
+            long total = service.saveStream(new NdjsonHits(hits));
+            log.info("StatsController - saved a stream of {} endpoint hits", total);
+        }
+    }
+
     @GetMapping("/stats")
     public List<ViewStatsDto> getStats(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
             @RequestParam(required = false) List<String> uris,
-            @RequestParam(required = false, defaultValue = "false") boolean unique) {
+            @RequestParam(required = false, defaultValue = "false") String unique) {
 
         log.info("StatsController - retrieving visit statistics from {} to {} for endpoints: {}, uniqueness - {}",
                 start, end, uris, unique);
@@ -40,6 +71,32 @@ public class StatsController {
             throw new IllegalArgumentException("The start cannot be later then the end");
         }
 
-        return service.findStats(start, end, uris, unique);
+        return service.findStats(start, end, uris, UniqueMode.from(unique));
+    }
+
+    // Ошибка разбора строки — это ошибка запроса (400), а не сервера
+    private record NdjsonHits(MappingIterator<EndpointHitDto> hits) implements Iterator<EndpointHitDto> {
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return hits.hasNextValue();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed NDJSON hit: " + e.getOriginalMessage(), e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public EndpointHitDto next() {
+            try {
+                return hits.nextValue();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed NDJSON hit: " + e.getOriginalMessage(), e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,5 @@
+package ru.practicum.ewm.server.model;
+
+// Уникальный ip, обратившийся к uri
+public record HitIp(String app, String uri, String ip) {
+}
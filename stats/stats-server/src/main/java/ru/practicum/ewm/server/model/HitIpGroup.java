@@ -0,0 +1,7 @@
+package ru.practicum.ewm.server.model;
+
+import java.time.LocalDateTime;
+
+// Хиты одного ip на один uri за одну минуту
+public record HitIpGroup(String app, String uri, LocalDateTime minute, String ip, long hits) {
+}
@@ -0,0 +1,40 @@
+package ru.practicum.ewm.server.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(HitRollupId.class)
+@Table(name = "hit_rollups")
+public class HitRollup {
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(nullable = false)
+    private String app;
+
+    @Id
+    @Column(nullable = false, length = 512)
+    private String uri;
+
+    @Column(nullable = false)
+    private long hits;
+
+    // Сериализованный HyperLogLog по ip, для оценки уникальных посещений
+    @Column(name = "ip_sketch", nullable = false)
+    private byte[] ipSketch;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.ewm.server.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public LocalDateTime nextBucket(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    public boolean isAligned(LocalDateTime timestamp) {
+        return bucketStart(timestamp).equals(timestamp);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.ewm.server.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Граница, до которой сырые хиты уже учтены в hit_rollups (не включительно)
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "hit_rollup_watermarks")
+public class RollupWatermark {
+    @Id
+    private String name;
+
+    @Column(name = "rolled_until", nullable = false)
+    private LocalDateTime rolledUntil;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.ewm.server.model;
+
+import java.util.Locale;
+
+/**
+ * Режим подсчёта посещений в /stats: все хиты, точное число уникальных ip
+ * или оценка уникальных ip по HyperLogLog со стандартной ошибкой около 0.81%.
+ */
+public enum UniqueMode {
+    FALSE,
+    TRUE,
+    APPROX;
+
+    public static UniqueMode from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown value of parameter unique: " + value);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.ewm.server.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.dto.ViewStatsDto;
+import ru.practicum.ewm.server.model.HitRollup;
+import ru.practicum.ewm.server.model.HitRollupId;
+import ru.practicum.ewm.server.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HitRollupRepository extends JpaRepository<HitRollup, HitRollupId>, HitRollupRepositoryCustom {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO hit_rollups (granularity, bucket_start, app, uri, hits, ip_sketch)
+            VALUES (:granularity, :bucketStart, :app, :uri, 0, :emptySketch)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    void insertIfAbsent(String granularity, LocalDateTime bucketStart, String app, String uri, byte[] emptySketch);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT r
+            FROM HitRollup AS r
+            WHERE r.granularity = :granularity
+            AND r.bucketStart = :bucketStart
+            AND r.app = :app
+            AND r.uri = :uri
+            """)
+    Optional<HitRollup> findForUpdate(RollupGranularity granularity, LocalDateTime bucketStart, String app, String uri);
+
+    @Query("""
+            SELECT new ru.practicum.ewm.dto.ViewStatsDto(r.app, r.uri, SUM(r.hits))
+            FROM HitRollup AS r
+            WHERE r.granularity = :granularity
+            AND r.bucketStart >= :from
+            AND r.bucketStart < :to
+            GROUP BY r.app, r.uri
+            """)
+    List<ViewStatsDto> sumHits(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            SELECT new ru.practicum.ewm.dto.ViewStatsDto(r.app, r.uri, SUM(r.hits))
+            FROM HitRollup AS r
+            WHERE r.granularity = :granularity
+            AND r.bucketStart >= :from
+            AND r.bucketStart < :to
+            AND r.uri IN :uris
+            GROUP BY r.app, r.uri
+            """)
+    List<ViewStatsDto> sumHitsByUris(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                     List<String> uris);
+
+    @Query("""
+            SELECT r
+            FROM HitRollup AS r
+            WHERE r.granularity = :granularity
+            AND r.bucketStart >= :from
+            AND r.bucketStart < :to
+            """)
+    List<HitRollup> findBuckets(RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            SELECT r
+            FROM HitRollup AS r
+            WHERE r.granularity = :granularity
+            AND r.bucketStart >= :from
+            AND r.bucketStart < :to
+            AND r.uri IN :uris
+            """)
+    List<HitRollup> findBucketsByUris(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                      List<String> uris);
+}
@@ -0,0 +1,11 @@
+package ru.practicum.ewm.server.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface HitRollupRepositoryCustom {
+
+    void markDirtyMinutes(List<LocalDateTime> minutes);
+
+    List<LocalDateTime> takeDirtyMinutes(int limit);
+}
@@ -0,0 +1,44 @@
+package ru.practicum.ewm.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class HitRollupRepositoryCustomImpl implements HitRollupRepositoryCustom {
+
+    private static final String MARK_DIRTY = """
+            INSERT INTO hit_rollup_dirty_minutes (minute)
+            VALUES (?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String TAKE_DIRTY = """
+            DELETE FROM hit_rollup_dirty_minutes
+            WHERE minute IN (
+                SELECT minute
+                FROM hit_rollup_dirty_minutes
+                ORDER BY minute
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING minute
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Минуты вставляются по возрастанию, чтобы параллельные записи не взаимоблокировались
+    @Override
+    public void markDirtyMinutes(List<LocalDateTime> minutes) {
+        jdbcTemplate.batchUpdate(MARK_DIRTY, minutes, minutes.size(),
+                (ps, minute) -> ps.setTimestamp(1, Timestamp.valueOf(minute)));
+    }
+
+    // Отметки удаляются в той же транзакции, что и пересчёт: при откате они вернутся
+    @Override
+    public List<LocalDateTime> takeDirtyMinutes(int limit) {
+        return jdbcTemplate.query(TAKE_DIRTY, (rs, rowNum) -> rs.getTimestamp("minute").toLocalDateTime(), limit);
+    }
+}
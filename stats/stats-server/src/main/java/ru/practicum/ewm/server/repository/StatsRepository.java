@@ -5,12 +5,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.dto.ViewStatsDto;
 import ru.practicum.ewm.server.model.EndpointHit;
+import ru.practicum.ewm.server.model.HitIp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface StatsRepository extends JpaRepository<EndpointHit, Long> {
+public interface StatsRepository extends JpaRepository<EndpointHit, Long>, StatsRepositoryCustom {
 
     @Query("""
             SELECT new ru.practicum.ewm.dto.ViewStatsDto(e.app, e.uri, COUNT(e.ip) AS hits)
@@ -53,4 +54,46 @@ public interface StatsRepository extends JpaRepository<EndpointHit, Long> {
             ORDER BY COUNT(DISTINCT e.ip) DESC
             """)
     List<ViewStatsDto> findStatsByTimestampAndUniqueAndUri(LocalDateTime start, LocalDateTime end, List<String> uris);
-}
\ No newline at end of file
+
+    @Query("""
+            SELECT new ru.practicum.ewm.dto.ViewStatsDto(e.app, e.uri, COUNT(e.ip) AS hits)
+            FROM EndpointHit AS e
+            WHERE e.timestamp >= :start
+            AND e.timestamp < :end
+            GROUP BY e.app, e.uri
+            """)
+    List<ViewStatsDto> findStatsInRange(LocalDateTime start, LocalDateTime end);
+
+    @Query("""
+            SELECT new ru.practicum.ewm.dto.ViewStatsDto(e.app, e.uri, COUNT(e.ip) AS hits)
+            FROM EndpointHit AS e
+            WHERE e.timestamp >= :start
+            AND e.timestamp < :end
+            AND e.uri IN :uris
+            GROUP BY e.app, e.uri
+            """)
+    List<ViewStatsDto> findStatsInRangeAndUri(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("""
+            SELECT DISTINCT new ru.practicum.ewm.server.model.HitIp(e.app, e.uri, e.ip)
+            FROM EndpointHit AS e
+            WHERE e.timestamp
+            BETWEEN :start AND :end
+            """)
+    List<HitIp> findIpsByTimestamp(LocalDateTime start, LocalDateTime end);
+
+    @Query("""
+            SELECT DISTINCT new ru.practicum.ewm.server.model.HitIp(e.app, e.uri, e.ip)
+            FROM EndpointHit AS e
+            WHERE e.timestamp
+            BETWEEN :start AND :end
+            AND e.uri IN :uris
+            """)
+    List<HitIp> findIpsByTimestampAndUri(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("SELECT MIN(e.timestamp) FROM EndpointHit AS e WHERE e.timestamp >= :from")
+    LocalDateTime findFirstTimestampFrom(LocalDateTime from);
+
+    @Query("SELECT MIN(e.timestamp) FROM EndpointHit AS e")
+    LocalDateTime findFirstTimestamp();
+}
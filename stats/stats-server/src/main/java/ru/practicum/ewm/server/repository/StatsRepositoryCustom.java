@@ -0,0 +1,15 @@
+package ru.practicum.ewm.server.repository;
+
+import ru.practicum.ewm.server.model.EndpointHit;
+import ru.practicum.ewm.server.model.HitIpGroup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface StatsRepositoryCustom {
+
+    void insertAll(List<EndpointHit> hits);
+
+    void scanIpGroups(LocalDateTime from, LocalDateTime to, Consumer<HitIpGroup> consumer);
+}
@@ -0,0 +1,91 @@
+package ru.practicum.ewm.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.server.model.EndpointHit;
+import ru.practicum.ewm.server.model.HitIpGroup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class StatsRepositoryCustomImpl implements StatsRepositoryCustom {
+
+    private static final String COPY_HITS = "COPY hits (app, uri, ip, timestamp) FROM STDIN";
+    private static final String SELECT_IP_GROUPS = """
+            SELECT app, uri, date_trunc('minute', timestamp) AS minute, ip, COUNT(*) AS hits
+            FROM hits
+            WHERE timestamp >= ? AND timestamp < ?
+            GROUP BY app, uri, date_trunc('minute', timestamp), ip
+            """;
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // COPY вместо JPA saveAll: IDENTITY-ключ не даёт Hibernate группировать вставки,
+    // а COPY в текстовом формате быстрее многострочных INSERT (см. HitIngestionBenchmarkTest).
+    // Соединение берётся из текущей транзакции, поэтому пачка откатывается вместе с ней
+    @Override
+    public void insertAll(List<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        StringBuilder rows = new StringBuilder(hits.size() * 96);
+        for (EndpointHit hit : hits) {
+            appendField(rows, hit.getApp()).append('\t');
+            appendField(rows, hit.getUri()).append('\t');
+            appendField(rows, hit.getIp()).append('\t');
+            rows.append(hit.getTimestamp()).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(COPY_HITS, new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Экранирование текстового формата COPY: обратная косая черта и управляющие символы
+    private static StringBuilder appendField(StringBuilder rows, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> rows.append("\\\\");
+                case '\t' -> rows.append("\\t");
+                case '\n' -> rows.append("\\n");
+                case '\r' -> rows.append("\\r");
+                default -> rows.append(c);
+            }
+        }
+        return rows;
+    }
+
+    // Строки читаются курсором, без материализации всего диапазона в памяти
+    @Override
+    public void scanIpGroups(LocalDateTime from, LocalDateTime to, Consumer<HitIpGroup> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_IP_GROUPS);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, rs -> {
+            consumer.accept(new HitIpGroup(
+                    rs.getString("app"),
+                    rs.getString("uri"),
+                    rs.getTimestamp("minute").toLocalDateTime(),
+                    rs.getString("ip"),
+                    rs.getLong("hits")));
+        });
+    }
+}
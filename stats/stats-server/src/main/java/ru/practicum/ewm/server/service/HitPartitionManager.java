@@ -0,0 +1,182 @@
+package ru.practicum.ewm.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Обслуживает дневные секции таблицы hits: создаёт секции на несколько дней вперёд
+ * и удаляет целиком секции старше срока хранения (DROP вместо DELETE по строкам).
+ * Из секции по умолчанию (хиты до перехода на секции и дни, секция которых не успела появиться)
+ * старые строки удаляются пачками, а хиты дня, для которого создаётся секция, переносятся в неё.
+ * С тем же сроком удаляются корзины свёртки, чтобы статистика по старым периодам
+ * не расходилась между корзинами и сырыми хитами.
+ * Если hits не секционирована (миграция V3 ещё не применена), ничего не делает.
+ */
+@Slf4j
+@Component
+public class HitPartitionManager {
+
+    private static final String PARTITION_PREFIX = "hits_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String IS_PARTITIONED = """
+            SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('hits') AND relkind = 'p')
+            """;
+    private static final String SELECT_PARTITIONS = """
+            SELECT child.relname
+            FROM pg_inherits
+            JOIN pg_class AS child ON child.oid = pg_inherits.inhrelid
+            WHERE pg_inherits.inhparent = to_regclass('hits')
+            """;
+    private static final String DEFAULT_PARTITION = "hits_default";
+    private static final String DELETE_FROM_DEFAULT = """
+            DELETE FROM hits_default
+            WHERE ctid IN (SELECT ctid FROM hits_default WHERE timestamp < ? LIMIT ?)
+            """;
+    private static final int DEFAULT_DELETE_BATCH = 10000;
+    private static final String DEFAULT_HAS_DAY = """
+            SELECT EXISTS (SELECT 1 FROM hits_default WHERE timestamp >= ? AND timestamp < ?)
+            """;
+    // Запись в секцию по умолчанию ждёт переноса, иначе ATTACH увидит в ней строки нового дня
+    private static final String PARTITION_EXISTS = "SELECT to_regclass(?) IS NOT NULL";
+    private static final String LOCK_DEFAULT = "LOCK TABLE hits_default IN EXCLUSIVE MODE";
+    private static final String DELETE_ROLLUPS = "DELETE FROM hit_rollups WHERE bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int daysAhead;
+    private final Duration retention;
+
+    public HitPartitionManager(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${stats.partitions.days-ahead:7}") int daysAhead,
+                               @Value("${stats.partitions.retention:365d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.daysAhead = daysAhead;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${stats.partitions.interval-ms:3600000}")
+    public void maintainPartitions() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class))) {
+            log.warn("Таблица hits не секционирована, обслуживание секций пропущено");
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        Set<String> partitions = Set.copyOf(jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class));
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            if (!partitions.contains(partitionName(day))) {
+                createPartition(day, partitions.contains(DEFAULT_PARTITION));
+            }
+        }
+        LocalDate boundary = today.minusDays(retention.toDays());
+        dropPartitionsBefore(boundary);
+        deleteFromDefaultBefore(boundary);
+        deleteRollupsBefore(boundary);
+    }
+
+    // Если хиты дня уже лежат в секции по умолчанию (например, после V3), секция создаётся отдельно,
+    // строки переносятся в неё, и она присоединяется к hits — всё в одной транзакции. Ошибка не глотается:
+    // без секции хиты дня так и копились бы в секции по умолчанию
+    private void createPartition(LocalDate day, boolean hasDefault) {
+        String name = partitionName(day);
+        String bounds = " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')";
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    createPartitionInTransaction(name, bounds, from, to, hasDefault));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to create hit partition " + name, e);
+        }
+    }
+
+    private void createPartitionInTransaction(String name, String bounds, Timestamp from, Timestamp to,
+                                              boolean hasDefault) {
+        if (hasDefault) {
+            jdbcTemplate.execute(LOCK_DEFAULT);
+        }
+        // Другой экземпляр мог создать секцию, пока ждали блокировку
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(PARTITION_EXISTS, Boolean.class, name))) {
+            return;
+        }
+        if (!hasDefault || !Boolean.TRUE.equals(jdbcTemplate.queryForObject(DEFAULT_HAS_DAY, Boolean.class,
+                from, to))) {
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF hits" + bounds);
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE hits INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM hits_default"
+                + " WHERE timestamp >= ? AND timestamp < ? RETURNING id, app, uri, ip, timestamp)"
+                + " INSERT INTO " + name + " (id, app, uri, ip, timestamp) SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE hits ATTACH PARTITION " + name + bounds);
+        log.info("Создана секция {}, из секции по умолчанию перенесено хитов: {}", name, moved);
+    }
+
+    private void dropPartitionsBefore(LocalDate boundary) {
+        List<String> partitions = jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class);
+        for (String name : partitions) {
+            LocalDate day = parseDay(name);
+            if (day != null && day.isBefore(boundary)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                log.info("Удалена секция хитов {} старше срока хранения", name);
+            }
+        }
+    }
+
+    // Пачками, чтобы не держать долгую транзакцию на хитах, накопленных до секционирования
+    private void deleteFromDefaultBefore(LocalDate boundary) {
+        if (!jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class).contains(DEFAULT_PARTITION)) {
+            return;
+        }
+        Timestamp before = Timestamp.valueOf(boundary.atStartOfDay());
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_FROM_DEFAULT, before, DEFAULT_DELETE_BATCH);
+            total += deleted;
+        } while (deleted == DEFAULT_DELETE_BATCH);
+        if (total > 0) {
+            log.info("Удалено {} хитов старше {} из секции по умолчанию", total, boundary);
+        }
+    }
+
+    private void deleteRollupsBefore(LocalDate boundary) {
+        int deleted = jdbcTemplate.update(DELETE_ROLLUPS, Timestamp.valueOf(boundary.atStartOfDay()));
+        if (deleted > 0) {
+            log.info("Удалено {} корзин свёртки старше {}", deleted, boundary);
+        }
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+
+    private static LocalDate parseDay(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
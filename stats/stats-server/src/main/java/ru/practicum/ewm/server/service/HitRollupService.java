@@ -0,0 +1,403 @@
+package ru.practicum.ewm.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.ViewStatsDto;
+import ru.practicum.ewm.server.model.EndpointHit;
+import ru.practicum.ewm.server.model.HitIp;
+import ru.practicum.ewm.server.model.HitRollup;
+import ru.practicum.ewm.server.model.HitRollupId;
+import ru.practicum.ewm.server.model.RollupGranularity;
+import ru.practicum.ewm.server.model.RollupWatermark;
+import ru.practicum.ewm.server.repository.HitRollupRepository;
+import ru.practicum.ewm.server.repository.RollupWatermarkRepository;
+import ru.practicum.ewm.server.repository.StatsRepository;
+import ru.practicum.ewm.server.sketch.HyperLogLog;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Предагрегированные счётчики хитов по (app, uri) в корзинах минута/час/день.
+ * Фоновая свёртка переносит в корзины закрытые минуты сырых хитов и сдвигает границу свёртки.
+ * Запись хитов границу не блокирует: минуты, в которые хит мог прийти уже после свёртки, отмечаются
+ * при коммите записи, и фоновая свёртка пересчитывает их из сырых хитов. Пересчёт идемпотентен,
+ * поэтому минута, свёрнутая и отмеченная одновременно, не задваивается.
+ * Запрос статистики берёт самые крупные корзины внутри периода и читает сырые хиты только по краям.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class HitRollupService {
+
+    private static final String WATERMARK = "hits";
+    // Запас на время между отметкой поздних минут и коммитом записи хитов
+    private static final Duration LATE_GUARD = Duration.ofSeconds(10);
+    private static final List<RollupGranularity> COARSEST_FIRST =
+            List.of(RollupGranularity.DAY, RollupGranularity.HOUR, RollupGranularity.MINUTE);
+    private static final Comparator<HitRollupId> LOCK_ORDER = Comparator
+            .comparing(HitRollupId::getGranularity)
+            .thenComparing(HitRollupId::getBucketStart)
+            .thenComparing(HitRollupId::getApp)
+            .thenComparing(HitRollupId::getUri);
+
+    private final StatsRepository statsRepository;
+    private final HitRollupRepository rollupRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lag;
+    private final int maxMinutesPerWindow;
+    private final int maxWindowsPerRun;
+    private final int dirtyBatchSize;
+
+    public HitRollupService(StatsRepository statsRepository,
+                            HitRollupRepository rollupRepository,
+                            RollupWatermarkRepository watermarkRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${stats.rollup.lag:1m}") Duration lag,
+                            @Value("${stats.rollup.max-minutes-per-window:60}") int maxMinutesPerWindow,
+                            @Value("${stats.rollup.max-windows-per-run:24}") int maxWindowsPerRun,
+                            @Value("${stats.rollup.dirty-batch-size:100}") int dirtyBatchSize) {
+        this.statsRepository = statsRepository;
+        this.rollupRepository = rollupRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = lag;
+        this.maxMinutesPerWindow = maxMinutesPerWindow;
+        this.maxWindowsPerRun = maxWindowsPerRun;
+        this.dirtyBatchSize = dirtyBatchSize;
+    }
+
+    // Каждое окно сворачивается в отдельной транзакции, чтобы не держать блокировку границы долго;
+    // без NOT_SUPPORTED окна присоединялись бы к read-only транзакции класса и не могли бы писать
+    @Scheduled(fixedDelayString = "${stats.rollup.interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rollUp() {
+        Boolean hasMoreDirty;
+        do {
+            hasMoreDirty = transactionTemplate.execute(status -> recomputeDirtyMinutes());
+        } while (Boolean.TRUE.equals(hasMoreDirty));
+
+        for (int i = 0; i < maxWindowsPerRun; i++) {
+            Boolean hasMore = transactionTemplate.execute(status -> rollUpNextWindow());
+            if (!Boolean.TRUE.equals(hasMore)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Отмечает минуты хитов, которые свёртка могла уже пройти, не увидев их. Граница считается
+     * по времени коммита: свёртка, начавшаяся до коммита, не заходит дальше now - lag.
+     */
+    @Transactional
+    public void markLateHits(List<EndpointHit> hits) {
+        Set<LocalDateTime> minutes = new HashSet<>();
+        hits.forEach(hit -> minutes.add(RollupGranularity.MINUTE.bucketStart(hit.getTimestamp())));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markDirty(minutes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                markDirty(minutes);
+            }
+        });
+    }
+
+    public List<ViewStatsDto> findHitStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        LocalDateTime from = ceilToMinute(start);
+        LocalDateTime to = rolledUpTo(end);
+
+        if (to == null || !from.isBefore(to)) {
+            return uris == null
+                    ? statsRepository.findStatsByTimestamp(start, end)
+                    : statsRepository.findStatsByTimestampAndUri(start, end, uris);
+        }
+
+        Map<String, ViewStatsDto> totals = new LinkedHashMap<>();
+        if (start.isBefore(from)) {
+            addAll(totals, uris == null
+                    ? statsRepository.findStatsInRange(start, from)
+                    : statsRepository.findStatsInRangeAndUri(start, from, uris));
+        }
+        for (RollupSegment segment : cover(from, to)) {
+            addAll(totals, uris == null
+                    ? rollupRepository.sumHits(segment.granularity(), segment.from(), segment.to())
+                    : rollupRepository.sumHitsByUris(segment.granularity(), segment.from(), segment.to(), uris));
+        }
+        addAll(totals, uris == null
+                ? statsRepository.findStatsByTimestamp(to, end)
+                : statsRepository.findStatsByTimestampAndUri(to, end, uris));
+
+        return sortByHits(totals.values());
+    }
+
+    /**
+     * Оценка числа уникальных ip по скетчам корзин; края периода добираются из сырых хитов.
+     * Стандартная ошибка оценки — {@link HyperLogLog#STANDARD_ERROR} (около 0.81%).
+     */
+    public List<ViewStatsDto> findApproxUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        LocalDateTime from = ceilToMinute(start);
+        LocalDateTime to = rolledUpTo(end);
+        Map<String, UriSketch> sketches = new LinkedHashMap<>();
+
+        if (to == null || !from.isBefore(to)) {
+            addIps(sketches, start, end, uris);
+        } else {
+            // Повторный учёт одного ip на стыке краёв и корзин оценку не меняет
+            addIps(sketches, start, from, uris);
+            for (RollupSegment segment : cover(from, to)) {
+                List<HitRollup> buckets = uris == null
+                        ? rollupRepository.findBuckets(segment.granularity(), segment.from(), segment.to())
+                        : rollupRepository.findBucketsByUris(segment.granularity(), segment.from(), segment.to(),
+                        uris);
+                for (HitRollup bucket : buckets) {
+                    sketchFor(sketches, bucket.getApp(), bucket.getUri())
+                            .merge(HyperLogLog.fromBytes(bucket.getIpSketch()));
+                }
+            }
+            addIps(sketches, to, end, uris);
+        }
+
+        return sortByHits(sketches.values()
+                .stream()
+                .map(sketch -> new ViewStatsDto(sketch.app(), sketch.uri(), sketch.sketch().estimate()))
+                .toList());
+    }
+
+    private void markDirty(Set<LocalDateTime> minutes) {
+        LocalDateTime threshold = RollupGranularity.MINUTE.bucketStart(LocalDateTime.now()
+                .minus(lag)
+                .plus(LATE_GUARD));
+        List<LocalDateTime> late = minutes.stream()
+                .filter(minute -> minute.isBefore(threshold))
+                .sorted()
+                .toList();
+        if (!late.isEmpty()) {
+            log.debug("Отмечены для пересчёта свёртки минуты: {}", late);
+            rollupRepository.markDirtyMinutes(late);
+        }
+    }
+
+    // Выполняется под блокировкой границы, поэтому не пересекается со свёрткой окна
+    private boolean recomputeDirtyMinutes() {
+        Optional<RollupWatermark> locked = watermarkRepository.findForUpdate(WATERMARK);
+        List<LocalDateTime> minutes = rollupRepository.takeDirtyMinutes(dirtyBatchSize);
+        // До начала свёртки и за границей минуты будут свёрнуты обычным порядком
+        locked.ifPresent(watermark -> minutes.stream()
+                .filter(minute -> minute.isBefore(watermark.getRolledUntil()))
+                .forEach(this::recomputeMinute));
+        return minutes.size() == dirtyBatchSize;
+    }
+
+    // Минутная корзина получает значение из сырых хитов, часовая и дневная — разницу числа хитов
+    // и объединение скетчей; объединение с тем же скетчем ничего не меняет, поэтому повтор безопасен
+    private void recomputeMinute(LocalDateTime minute) {
+        Map<HitRollupId, RollupDelta> fresh = new HashMap<>();
+        statsRepository.scanIpGroups(minute, minute.plusMinutes(1), group -> fresh
+                .computeIfAbsent(new HitRollupId(RollupGranularity.MINUTE, minute, group.app(), group.uri()),
+                        key -> new RollupDelta())
+                .add(group.ip(), group.hits()));
+
+        Map<HitRollupId, Long> rolled = new HashMap<>();
+        List<HitRollup> buckets = rollupRepository.findBuckets(RollupGranularity.MINUTE, minute,
+                minute.plusMinutes(1));
+        for (HitRollup bucket : buckets) {
+            rolled.put(new HitRollupId(RollupGranularity.MINUTE, minute, bucket.getApp(), bucket.getUri()),
+                    bucket.getHits());
+        }
+
+        Map<HitRollupId, RollupDelta> deltas = new HashMap<>();
+        fresh.forEach((minuteId, counted) -> {
+            long missing = counted.hits - rolled.getOrDefault(minuteId, 0L);
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                HitRollupId id = new HitRollupId(granularity, granularity.bucketStart(minute),
+                        minuteId.getApp(), minuteId.getUri());
+                deltas.put(id, new RollupDelta(counted.sketch, missing));
+            }
+        });
+        applyDeltas(deltas);
+    }
+
+    private boolean rollUpNextWindow() {
+        LocalDateTime target = RollupGranularity.MINUTE.bucketStart(LocalDateTime.now().minus(lag));
+        Optional<RollupWatermark> locked = watermarkRepository.findForUpdate(WATERMARK);
+
+        if (locked.isEmpty()) {
+            LocalDateTime firstHit = statsRepository.findFirstTimestamp();
+            LocalDateTime initial = firstHit != null ? RollupGranularity.MINUTE.bucketStart(firstHit) : target;
+            watermarkRepository.save(new RollupWatermark(WATERMARK, initial));
+            log.info("Инициализирована граница свёртки хитов: {}", initial);
+            return true;
+        }
+
+        RollupWatermark watermark = locked.get();
+        LocalDateTime from = watermark.getRolledUntil();
+        if (!from.isBefore(target)) {
+            return false;
+        }
+
+        // Пустые периоды пропускаем сразу до следующего хита
+        LocalDateTime nextHit = statsRepository.findFirstTimestampFrom(from);
+        if (nextHit == null || !nextHit.isBefore(target)) {
+            watermark.setRolledUntil(target);
+            return false;
+        }
+        from = RollupGranularity.MINUTE.bucketStart(nextHit);
+        LocalDateTime to = min(target, from.plusMinutes(maxMinutesPerWindow));
+
+        Map<HitRollupId, RollupDelta> deltas = new HashMap<>();
+        statsRepository.scanIpGroups(from, to, group -> addToAllGranularities(deltas,
+                group.app(), group.uri(), group.minute(), group.ip(), group.hits()));
+        applyDeltas(deltas);
+
+        watermark.setRolledUntil(to);
+        log.debug("Свёрнуты хиты за [{}, {}), затронуто корзин: {}", from, to, deltas.size());
+        return to.isBefore(target);
+    }
+
+    private void addToAllGranularities(Map<HitRollupId, RollupDelta> deltas, String app, String uri,
+                                       LocalDateTime timestamp, String ip, long hits) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            HitRollupId id = new HitRollupId(granularity, granularity.bucketStart(timestamp), app, uri);
+            deltas.computeIfAbsent(id, key -> new RollupDelta()).add(ip, hits);
+        }
+    }
+
+    // Строки корзин блокируются в одном порядке, чтобы параллельные досчёты не взаимоблокировались
+    private void applyDeltas(Map<HitRollupId, RollupDelta> deltas) {
+        byte[] emptySketch = new HyperLogLog().toBytes();
+        List<HitRollupId> ids = new ArrayList<>(deltas.keySet());
+        ids.sort(LOCK_ORDER);
+
+        for (HitRollupId id : ids) {
+            rollupRepository.insertIfAbsent(id.getGranularity().name(), id.getBucketStart(), id.getApp(),
+                    id.getUri(), emptySketch);
+            HitRollup rollup = rollupRepository.findForUpdate(id.getGranularity(), id.getBucketStart(),
+                            id.getApp(), id.getUri())
+                    .orElseThrow(() -> new IllegalStateException("Rollup bucket disappeared: " + id));
+
+            RollupDelta delta = deltas.get(id);
+            HyperLogLog sketch = HyperLogLog.fromBytes(rollup.getIpSketch());
+            sketch.merge(delta.sketch);
+
+            rollup.setHits(rollup.getHits() + delta.hits);
+            rollup.setIpSketch(sketch.toBytes());
+        }
+    }
+
+    // Покрытие [from, to) корзинами: внутри — дни, ближе к краям — часы и минуты
+    private List<RollupSegment> cover(LocalDateTime from, LocalDateTime to) {
+        List<RollupSegment> segments = new ArrayList<>();
+        LocalDateTime cursor = from;
+
+        while (cursor.isBefore(to)) {
+            RollupGranularity granularity = RollupGranularity.MINUTE;
+            for (RollupGranularity candidate : COARSEST_FIRST) {
+                if (candidate.isAligned(cursor) && !candidate.nextBucket(cursor).isAfter(to)) {
+                    granularity = candidate;
+                    break;
+                }
+            }
+
+            LocalDateTime next = granularity.nextBucket(cursor);
+            RollupSegment last = segments.isEmpty() ? null : segments.getLast();
+            if (last != null && last.granularity() == granularity && last.to().equals(cursor)) {
+                segments.set(segments.size() - 1, new RollupSegment(granularity, last.from(), next));
+            } else {
+                segments.add(new RollupSegment(granularity, cursor, next));
+            }
+            cursor = next;
+        }
+        return segments;
+    }
+
+    // Конец периода, до которого он покрыт корзинами, или null, если свёртка ещё не начиналась
+    private LocalDateTime rolledUpTo(LocalDateTime end) {
+        return watermarkRepository.findById(WATERMARK)
+                .map(watermark -> min(RollupGranularity.MINUTE.bucketStart(end), watermark.getRolledUntil()))
+                .orElse(null);
+    }
+
+    private void addIps(Map<String, UriSketch> sketches, LocalDateTime start, LocalDateTime end, List<String> uris) {
+        List<HitIp> ips = uris == null
+                ? statsRepository.findIpsByTimestamp(start, end)
+                : statsRepository.findIpsByTimestampAndUri(start, end, uris);
+        for (HitIp ip : ips) {
+            sketchFor(sketches, ip.app(), ip.uri()).add(ip.ip());
+        }
+    }
+
+    private HyperLogLog sketchFor(Map<String, UriSketch> sketches, String app, String uri) {
+        return sketches.computeIfAbsent(app + '\n' + uri, key -> new UriSketch(app, uri, new HyperLogLog()))
+                .sketch();
+    }
+
+    private List<ViewStatsDto> sortByHits(Collection<ViewStatsDto> stats) {
+        return stats.stream()
+                .sorted(Comparator.comparingLong(ViewStatsDto::getHits).reversed())
+                .toList();
+    }
+
+    private void addAll(Map<String, ViewStatsDto> totals, List<ViewStatsDto> stats) {
+        for (ViewStatsDto stat : stats) {
+            totals.merge(stat.getApp() + '\n' + stat.getUri(), stat, (left, right) ->
+                    new ViewStatsDto(left.getApp(), left.getUri(), left.getHits() + right.getHits()));
+        }
+    }
+
+    private static LocalDateTime ceilToMinute(LocalDateTime timestamp) {
+        LocalDateTime floor = RollupGranularity.MINUTE.bucketStart(timestamp);
+        return floor.equals(timestamp) ? floor : floor.plusMinutes(1);
+    }
+
+    private static LocalDateTime min(LocalDateTime left, LocalDateTime right) {
+        return left.isBefore(right) ? left : right;
+    }
+
+    private record UriSketch(String app, String uri, HyperLogLog sketch) {
+    }
+
+    private record RollupSegment(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private static class RollupDelta {
+        private final HyperLogLog sketch;
+        private long hits;
+
+        RollupDelta() {
+            this(new HyperLogLog(), 0);
+        }
+
+        RollupDelta(HyperLogLog sketch, long hits) {
+            this.sketch = sketch;
+            this.hits = hits;
+        }
+
+        void add(String ip, long count) {
+            sketch.add(ip);
+            hits += count;
+        }
+    }
+}
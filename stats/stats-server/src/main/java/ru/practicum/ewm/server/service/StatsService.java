@@ -2,13 +2,19 @@ package ru.practicum.ewm.server.service;
 
 import ru.practicum.ewm.dto.EndpointHitDto;
 import ru.practicum.ewm.dto.ViewStatsDto;
+import ru.practicum.ewm.server.model.UniqueMode;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 public interface StatsService {
 
     void save(EndpointHitDto endpointHitDto);
 
-    List<ViewStatsDto> findStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique);
+    void saveAll(List<EndpointHitDto> endpointHitDtos);
+
+    long saveStream(Iterator<EndpointHitDto> endpointHitDtos);
+
+    List<ViewStatsDto> findStats(LocalDateTime start, LocalDateTime end, List<String> uris, UniqueMode unique);
 }
\ No newline at end of file
@@ -1,40 +1,91 @@
 package ru.practicum.ewm.server.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.dto.EndpointHitDto;
 import ru.practicum.ewm.dto.ViewStatsDto;
 import ru.practicum.ewm.server.mapper.EndPointHitMapper;
+import ru.practicum.ewm.server.model.EndpointHit;
+import ru.practicum.ewm.server.model.UniqueMode;
 import ru.practicum.ewm.server.repository.StatsRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class StatsServiceImpl implements StatsService {
 
+    private static final int STREAM_CHUNK_SIZE = 5000;
+
     private final StatsRepository repository;
     private final EndPointHitMapper mapper;
+    private final HitRollupService rollupService;
+    private final Validator validator;
 
     @Override
     @Transactional
     public void save(EndpointHitDto hitDto) {
-        repository.save(mapper.mapToHit(hitDto));
+        EndpointHit hit = repository.save(mapper.mapToHit(hitDto));
+        rollupService.markLateHits(List.of(hit));
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(List<EndpointHitDto> hitDtos) {
+        List<EndpointHit> hits = hitDtos.stream()
+                .map(mapper::mapToHit)
+                .toList();
+        repository.insertAll(hits);
+        rollupService.markLateHits(hits);
     }
 
+    // Весь поток пишется в одной транзакции: при ошибке в любой строке не сохраняется ничего,
+    // и повтор запроса клиентом не задваивает хиты
     @Override
-    public List<ViewStatsDto> findStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
-        if (uris == null && !unique) {
-            return repository.findStatsByTimestamp(start, end);
-        } else if (uris == null) {
-            return repository.findStatsByTimestampAndUnique(start, end);
-        } else if (!unique) {
-            return repository.findStatsByTimestampAndUri(start, end, uris);
-        } else {
-            return repository.findStatsByTimestampAndUniqueAndUri(start, end, uris);
+    @Transactional
+    public long saveStream(Iterator<EndpointHitDto> hitDtos) {
+        long total = 0;
+        List<EndpointHitDto> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        while (hitDtos.hasNext()) {
+            EndpointHitDto hitDto = hitDtos.next();
+            Set<ConstraintViolation<EndpointHitDto>> violations = validator.validate(hitDto);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<EndpointHitDto> violation = violations.iterator().next();
+                throw new ConstraintViolationException("Invalid hit #" + (total + chunk.size() + 1) + ": "
+                        + violation.getPropertyPath() + " " + violation.getMessage(), violations);
+            }
+            chunk.add(hitDto);
+            if (chunk.size() == STREAM_CHUNK_SIZE) {
+                saveAll(chunk);
+                total += chunk.size();
+                chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveAll(chunk);
+            total += chunk.size();
         }
+        return total;
+    }
+
+    @Override
+    public List<ViewStatsDto> findStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                        UniqueMode unique) {
+        return switch (unique) {
+            case FALSE -> rollupService.findHitStats(start, end, uris);
+            case APPROX -> rollupService.findApproxUniqueStats(start, end, uris);
+            case TRUE -> uris == null
+                    ? repository.findStatsByTimestampAndUnique(start, end)
+                    : repository.findStatsByTimestampAndUniqueAndUri(start, end, uris);
+        };
     }
 }
\ No newline at end of file
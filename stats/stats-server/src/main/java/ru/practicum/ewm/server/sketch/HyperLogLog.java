@@ -0,0 +1,244 @@
+package ru.practicum.ewm.server.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog для оценки числа уникальных значений (здесь — ip).
+ * Точность p = 14 (16384 регистра), стандартная ошибка оценки 1.04 / sqrt(2^p) ≈ 0.81%.
+ * Пока заполнено мало регистров, скетч хранится в разреженном виде, поэтому
+ * скетчи малонагруженных корзин занимают десятки байт, а не 16 КБ.
+ */
+public class HyperLogLog {
+    public static final int PRECISION = 14;
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(1 << PRECISION);
+
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final int MAX_RANK = Long.SIZE - PRECISION + 1;
+    private static final int SPARSE_LIMIT = REGISTERS / 16;
+    private static final byte FORMAT_SPARSE = 0;
+    private static final byte FORMAT_DENSE = 1;
+
+    // Разреженное представление: (индекс регистра << 8) | ранг
+    private int[] sparse = new int[16];
+    private int sparseSize;
+    private byte[] dense;
+
+    public void add(String value) {
+        long hash = murmur64(value.getBytes(StandardCharsets.UTF_8));
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        long rest = hash << PRECISION;
+        int rank = Math.min(Long.numberOfLeadingZeros(rest) + 1, MAX_RANK);
+        update(index, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.dense != null) {
+            for (int i = 0; i < REGISTERS; i++) {
+                if (other.dense[i] != 0) {
+                    update(i, other.dense[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                update(other.sparse[i] >>> 8, other.sparse[i] & 0xFF);
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        if (dense != null) {
+            for (byte register : dense) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = REGISTERS - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparse[i] & 0xFF));
+            }
+        }
+
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        if (dense != null) {
+            return ByteBuffer.allocate(2 + REGISTERS)
+                    .put(FORMAT_DENSE)
+                    .put((byte) PRECISION)
+                    .put(dense)
+                    .array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 + Integer.BYTES + sparseSize * 3)
+                .put(FORMAT_SPARSE)
+                .put((byte) PRECISION)
+                .putInt(sparseSize);
+        for (int i = 0; i < sparseSize; i++) {
+            buffer.putShort((short) (sparse[i] >>> 8));
+            buffer.put((byte) (sparse[i] & 0xFF));
+        }
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        byte precision = buffer.get();
+        if (precision != PRECISION) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog precision: " + precision);
+        }
+
+        if (format == FORMAT_DENSE) {
+            sketch.dense = new byte[REGISTERS];
+            buffer.get(sketch.dense);
+        } else {
+            int size = buffer.getInt();
+            for (int i = 0; i < size; i++) {
+                int index = Short.toUnsignedInt(buffer.getShort());
+                int rank = Byte.toUnsignedInt(buffer.get());
+                sketch.update(index, rank);
+            }
+        }
+        return sketch;
+    }
+
+    private void update(int index, int rank) {
+        if (dense != null) {
+            if (dense[index] < rank) {
+                dense[index] = (byte) rank;
+            }
+            return;
+        }
+
+        for (int i = 0; i < sparseSize; i++) {
+            if (sparse[i] >>> 8 == index) {
+                if ((sparse[i] & 0xFF) < rank) {
+                    sparse[i] = (index << 8) | rank;
+                }
+                return;
+            }
+        }
+
+        if (sparseSize == SPARSE_LIMIT) {
+            toDense();
+            dense[index] = (byte) rank;
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        sparse[sparseSize++] = (index << 8) | rank;
+    }
+
+    private void toDense() {
+        dense = new byte[REGISTERS];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    // Первые 64 бита MurmurHash3 x64_128
+    private static long murmur64(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int length = data.length;
+        int blocks = length / 16;
+
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < blocks; i++) {
+            long k1 = buffer.getLong(i * 16);
+            long k2 = buffer.getLong(i * 16 + 8);
+
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        switch (length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xFF) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xFF) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xFF) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xFF) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xFF) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xFF) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xFF;
+                k2 *= c2;
+                k2 = Long.rotateLeft(k2, 33);
+                k2 *= c1;
+                h2 ^= k2;
+            case 8: k1 ^= (long) (data[tail + 7] & 0xFF) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xFF) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xFF) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xFF) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xFF) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xFF) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xFF) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xFF;
+                k1 *= c1;
+                k1 = Long.rotateLeft(k1, 31);
+                k1 *= c2;
+                h1 ^= k1;
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        return h1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,39 @@
+-- Исходная схема stats-server (раньше создавалась schema.sql при каждом старте); все операторы идемпотентны.
+-- Индексы hits создаются без CONCURRENTLY: на секционированной таблице PostgreSQL его не поддерживает.
+
+-- Хиты секционированы по дням; секции создаёт и удаляет HitPartitionManager
+CREATE TABLE IF NOT EXISTS hits (
+    id BIGSERIAL,
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    ip VARCHAR(20) NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Хиты вне заранее созданных секций; hits, созданную раньше без секций, миграция не трогает
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('hits') AND relkind = 'p') THEN
+        CREATE TABLE IF NOT EXISTS hits_default PARTITION OF hits DEFAULT;
+    END IF;
+END
+$$;
+
+CREATE INDEX IF NOT EXISTS hits_uri_timestamp_idx ON hits (uri, timestamp);
+CREATE INDEX IF NOT EXISTS hits_timestamp_app_uri_idx ON hits (timestamp, app, uri);
+
+CREATE TABLE IF NOT EXISTS hit_rollups (
+    granularity VARCHAR(16) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    hits BIGINT NOT NULL,
+    ip_sketch BYTEA NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, app, uri)
+);
+
+CREATE TABLE IF NOT EXISTS hit_rollup_watermarks (
+    name VARCHAR(255) PRIMARY KEY,
+    rolled_until TIMESTAMP NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Минуты, в которые после свёртки дописаны хиты. Запись хита отмечает минуту без блокировки границы свёртки,
+-- фоновая свёртка пересчитывает отмеченные минуты из сырых хитов и удаляет отметки.
+CREATE TABLE IF NOT EXISTS hit_rollup_dirty_minutes (
+    minute TIMESTAMP PRIMARY KEY
+);
@@ -0,0 +1,37 @@
+-- hits, созданная до секционирования (schema.sql или Hibernate), переводится на секционированную таблицу.
+-- Строки попадают в секцию по умолчанию: HitPartitionManager переносит из неё дни, для которых создаёт
+-- секции, а старые дни удаляет по сроку хранения. Вся миграция идёт одной транзакцией.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('hits') AND relkind = 'r') THEN
+        ALTER TABLE hits RENAME TO hits_unpartitioned;
+        ALTER INDEX IF EXISTS hits_pkey RENAME TO hits_unpartitioned_pkey;
+        DROP INDEX IF EXISTS hits_uri_timestamp_idx;
+        DROP INDEX IF EXISTS hits_timestamp_app_uri_idx;
+        IF to_regclass('hits_id_seq') IS NOT NULL THEN
+            ALTER SEQUENCE hits_id_seq RENAME TO hits_unpartitioned_id_seq;
+        END IF;
+
+        CREATE TABLE hits (
+            id BIGSERIAL,
+            app VARCHAR(255) NOT NULL,
+            uri VARCHAR(512) NOT NULL,
+            ip VARCHAR(20) NOT NULL,
+            timestamp TIMESTAMP NOT NULL,
+            PRIMARY KEY (id, timestamp)
+        ) PARTITION BY RANGE (timestamp);
+        CREATE TABLE hits_default PARTITION OF hits DEFAULT;
+
+        INSERT INTO hits (id, app, uri, ip, timestamp)
+        SELECT id, app, uri, ip, timestamp
+        FROM hits_unpartitioned;
+        DROP TABLE hits_unpartitioned;
+
+        -- Индексы строятся после переноса строк, так быстрее
+        CREATE INDEX hits_uri_timestamp_idx ON hits (uri, timestamp);
+        CREATE INDEX hits_timestamp_app_uri_idx ON hits (timestamp, app, uri);
+
+        PERFORM setval(pg_get_serial_sequence('hits', 'id'), COALESCE((SELECT MAX(id) FROM hits), 0) + 1, false);
+    END IF;
+END
+$$;
@@ -1,9 +0,0 @@
-DROP TABLE IF EXISTS hits;
-
-CREATE TABLE IF NOT EXISTS hits (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    app VARCHAR(255) NOT NULL,
-    uri VARCHAR(512) NOT NULL,
-    ip VARCHAR(20) NOT NULL,
-    timestamp TIMESTAMP NOT NULL
-);
\ No newline at end of file
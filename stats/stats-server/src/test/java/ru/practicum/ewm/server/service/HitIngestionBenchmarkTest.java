@@ -0,0 +1,155 @@
+package ru.practicum.ewm.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.dto.EndpointHitDto;
+import ru.practicum.ewm.server.PostgresContainerTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность записи хитов на одном узле: прежний путь (JPA save на каждый хит)
+ * против пакетов COPY через сервис и через NDJSON-поток /hit/batch.
+ * Цель — не меньше 50 тысяч хитов в секунду на записи через сервис; порог меняется через
+ * -Dbenchmark.target-hits-per-second. NDJSON-поток только измеряется: в нём ещё кодирование
+ * на стороне клиента в том же процессе, разбор и проверка каждой строки.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HitIngestionBenchmarkTest extends PostgresContainerTest {
+
+    private static final int PER_ROW_HITS = 5_000;
+    private static final int BATCH_HITS = 500_000;
+    private static final int STREAM_HITS = 500_000;
+    private static final int CHUNK_SIZE = 5_000;
+    private static final double TARGET_HITS_PER_SECOND =
+            Double.parseDouble(System.getProperty("benchmark.target-hits-per-second", "50000"));
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE hits, hit_rollup_dirty_minutes");
+    }
+
+    @Test
+    void perRowSaveBaseline() {
+        long started = System.nanoTime();
+        for (int i = 0; i < PER_ROW_HITS; i++) {
+            statsService.save(hit(i));
+        }
+        double rate = report("JPA save per hit", PER_ROW_HITS, started);
+
+        assertEquals(PER_ROW_HITS, countHits());
+        assertTrue(rate > 0);
+    }
+
+    @Test
+    void copyBatchInsertReachesTarget() {
+        saveInChunks(50_000);
+        jdbcTemplate.execute("TRUNCATE hits, hit_rollup_dirty_minutes");
+
+        long started = System.nanoTime();
+        saveInChunks(BATCH_HITS);
+        double rate = report("COPY via StatsService.saveAll", BATCH_HITS, started);
+
+        assertEquals(BATCH_HITS, countHits());
+        assertTrue(rate >= TARGET_HITS_PER_SECOND,
+                () -> String.format("%.0f hits/s is below the target of %.0f", rate, TARGET_HITS_PER_SECOND));
+    }
+
+    @Test
+    void ndjsonStreamThroughput() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        postStream(client, ndjson(50_000));
+        jdbcTemplate.execute("TRUNCATE hits, hit_rollup_dirty_minutes");
+
+        byte[] body = ndjson(STREAM_HITS);
+        long started = System.nanoTime();
+        HttpResponse<String> response = postStream(client, body);
+        double rate = report("NDJSON POST /hit/batch", STREAM_HITS, started);
+
+        assertEquals(201, response.statusCode(), response.body());
+        assertEquals(STREAM_HITS, countHits());
+        assertTrue(rate > 0);
+    }
+
+    private void saveInChunks(int total) {
+        List<EndpointHitDto> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < total; i++) {
+            chunk.add(hit(i));
+            if (chunk.size() == CHUNK_SIZE) {
+                statsService.saveAll(chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            statsService.saveAll(chunk);
+        }
+    }
+
+    private HttpResponse<String> postStream(HttpClient client, byte[] body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/hit/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private byte[] ndjson(int total) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(total * 110);
+        for (int i = 0; i < total; i++) {
+            out.write(objectMapper.writeValueAsBytes(hit(i)));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private long countHits() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hits", Long.class);
+    }
+
+    private static double report(String name, int hits, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        double rate = hits / seconds;
+        System.out.printf("%s: %d hits in %.2f s, %.0f hits/s%n", name, hits, seconds, rate);
+        return rate;
+    }
+
+    // Текущее время без долей секунды, как в формате DTO; uri и ip повторяются, как в реальном трафике
+    private static EndpointHitDto hit(int i) {
+        return EndpointHitDto.builder()
+                .app("main-service")
+                .uri("/events/" + (i % 1_000))
+                .ip("10.0." + (i / 250 % 250) + "." + (i % 250))
+                .timestamp(LocalDateTime.now().withNano(0))
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.ewm.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.server.PostgresContainerTest;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class HitPartitionManagerTest extends PostgresContainerTest {
+
+    @Autowired
+    private HitPartitionManager partitionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void movesHitsOfNewDayOutOfDefaultPartition() {
+        LocalDate day = LocalDate.now().plusDays(2);
+        String partition = "hits_" + DateTimeFormatter.ofPattern("yyyyMMdd").format(day);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        jdbcTemplate.update("DELETE FROM hits_default WHERE timestamp >= ? AND timestamp < ?",
+                Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+
+        // Без секции хиты дня ложатся в секцию по умолчанию
+        jdbcTemplate.update("""
+                INSERT INTO hits (app, uri, ip, timestamp)
+                SELECT 'main-service', '/events/' || g, '10.0.0.1', ?::timestamp + g * INTERVAL '1 minute'
+                FROM generate_series(0, 9) AS g
+                """, Timestamp.valueOf(day.atTime(12, 0)));
+        assertEquals(10, countIn("hits_default", day));
+
+        partitionManager.maintainPartitions();
+
+        assertEquals(0, countIn("hits_default", day));
+        assertEquals(10, countIn(partition, day));
+        assertEquals(10, countIn("hits", day));
+    }
+
+    private long countIn(String table, LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE timestamp >= ? AND timestamp < ?",
+                Long.class, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.ewm.server.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.dto.ViewStatsDto;
+import ru.practicum.ewm.server.PostgresContainerTest;
+import ru.practicum.ewm.server.repository.StatsRepository;
+import ru.practicum.ewm.server.sketch.HyperLogLog;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Время ответа unique=true по сырым хитам (COUNT DISTINCT) против оценки по скетчам свёртки
+ * на нескольких миллионах хитов. Объём и период задаются через -Dbenchmark.unique.hits и
+ * -Dbenchmark.unique.days. Ошибка оценки проверяется по точному ответу на тех же данных.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class UniqueStatsBenchmarkTest extends PostgresContainerTest {
+
+    private static final int HITS = Integer.getInteger("benchmark.unique.hits", 3_000_000);
+    private static final int DAYS = Integer.getInteger("benchmark.unique.days", 4);
+    private static final int URIS = 20;
+    private static final int IP_POOL = 400_000;
+    private static final int WARM_UP = 2;
+    private static final int MEASURED = 5;
+
+    @Autowired
+    private StatsRepository repository;
+
+    @Autowired
+    private HitRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void approxUniqueIsFasterThanExactWithinSketchError() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime first = now.minusDays(DAYS);
+        seed(first, now.minusMinutes(2));
+        rollUpUntil(now.minusMinutes(2));
+
+        // Начало не выровнено по минуте, чтобы оценка читала и сырые края, и корзины всех размеров
+        LocalDateTime start = first.plusSeconds(17);
+        LocalDateTime end = LocalDateTime.now();
+
+        long exactMs = medianMillis("exact COUNT(DISTINCT ip)",
+                () -> repository.findStatsByTimestampAndUnique(start, end));
+        long approxMs = medianMillis("approx HyperLogLog",
+                () -> rollupService.findApproxUniqueStats(start, end, null));
+
+        Map<String, Long> exact = byUri(repository.findStatsByTimestampAndUnique(start, end));
+        Map<String, Long> approx = byUri(rollupService.findApproxUniqueStats(start, end, null));
+        assertEquals(exact.keySet(), approx.keySet());
+
+        double maxError = exact.entrySet().stream()
+                .mapToDouble(entry -> Math.abs(approx.get(entry.getKey()) - entry.getValue())
+                        / (double) entry.getValue())
+                .max()
+                .orElseThrow();
+        System.out.printf("%d hits over %d days, %d uris: exact %d ms, approx %d ms, max relative error %.2f%%%n",
+                HITS, DAYS, URIS, exactMs, approxMs, maxError * 100);
+
+        assertTrue(maxError <= 4 * HyperLogLog.STANDARD_ERROR,
+                () -> String.format("Max relative error %.2f%% exceeds four standard errors", maxError * 100));
+        assertTrue(approxMs < exactMs, "The sketch path must answer faster than COUNT(DISTINCT ip)");
+    }
+
+    // Хиты равномерно по периоду; ip берутся из пула псевдослучайно, поэтому на uri их десятки тысяч
+    private void seed(LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.execute("TRUNCATE hits");
+        long started = System.nanoTime();
+        jdbcTemplate.update("""
+                INSERT INTO hits (app, uri, ip, timestamp)
+                SELECT 'main-service',
+                       '/events/' || (g % ?),
+                       '10.' || (ip / 65536) || '.' || (ip / 256 % 256) || '.' || (ip % 256),
+                       ?::timestamp + (g * ?::double precision) * INTERVAL '1 millisecond'
+                FROM generate_series(0, ? - 1) AS g,
+                     LATERAL (SELECT (hashint4(g) & 2147483647) % ? AS ip) AS pool
+                """, URIS, Timestamp.valueOf(from), (double) Duration.between(from, to).toMillis() / HITS,
+                HITS, IP_POOL);
+        // Свёртка при старте могла успеть выставить границу по пустой таблице
+        jdbcTemplate.execute("TRUNCATE hit_rollups, hit_rollup_watermarks, hit_rollup_dirty_minutes");
+        jdbcTemplate.execute("ANALYZE hits");
+        System.out.printf("Seeded %d hits in %.1f s%n", HITS, (System.nanoTime() - started) / 1e9);
+    }
+
+    private void rollUpUntil(LocalDateTime target) {
+        long started = System.nanoTime();
+        while (rolledUntil().isBefore(target)) {
+            rollupService.rollUp();
+        }
+        System.out.printf("Rolled up in %.1f s%n", (System.nanoTime() - started) / 1e9);
+    }
+
+    private LocalDateTime rolledUntil() {
+        List<Timestamp> rows = jdbcTemplate.queryForList(
+                "SELECT rolled_until FROM hit_rollup_watermarks WHERE name = 'hits'", Timestamp.class);
+        return rows.isEmpty() ? LocalDateTime.MIN : rows.getFirst().toLocalDateTime();
+    }
+
+    private static long medianMillis(String name, Supplier<List<ViewStatsDto>> query) {
+        for (int i = 0; i < WARM_UP; i++) {
+            query.get();
+        }
+        long[] millis = new long[MEASURED];
+        for (int i = 0; i < MEASURED; i++) {
+            long started = System.nanoTime();
+            query.get();
+            millis[i] = (System.nanoTime() - started) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        System.out.printf("%s: %s ms%n", name, Arrays.toString(millis));
+        return millis[MEASURED / 2];
+    }
+
+    private static Map<String, Long> byUri(List<ViewStatsDto> stats) {
+        return stats.stream().collect(Collectors.toMap(ViewStatsDto::getUri, ViewStatsDto::getHits));
+    }
+}
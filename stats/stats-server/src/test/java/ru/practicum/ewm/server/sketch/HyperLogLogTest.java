@@ -0,0 +1,112 @@
+package ru.practicum.ewm.server.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    // Четыре стандартные ошибки: при честной оценке выход за границу практически исключён
+    private static final double TOLERANCE = 4 * HyperLogLog.STANDARD_ERROR;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 30_000, 50_000, 100_000, 1_000_000})
+    void estimateIsWithinStandardErrorBound(int cardinality) {
+        HyperLogLog sketch = sketchOf(0, cardinality);
+
+        assertWithinBound(cardinality, sketch.estimate());
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        for (int i = 1; i <= 200; i++) {
+            int cardinality = i;
+            long estimate = sketchOf(0, cardinality).estimate();
+            assertTrue(Math.abs(estimate - cardinality) <= 1,
+                    () -> "Estimate " + estimate + " for " + cardinality + " values");
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        HyperLogLog sketch = sketchOf(0, 5_000);
+        long before = sketch.estimate();
+
+        sketch.merge(sketchOf(0, 5_000));
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add(ip(i));
+        }
+
+        assertEquals(before, sketch.estimate());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 2_000, 40_000})
+    void mergeEqualsSketchOfUnion(int size) {
+        // Пересекающиеся диапазоны [0, size) и [size / 2, size / 2 + size); регистры объединения
+        // добавляются в том же порядке, поэтому совпадает и разреженное представление
+        HyperLogLog left = sketchOf(0, size);
+        HyperLogLog right = sketchOf(size / 2, size / 2 + size);
+        HyperLogLog union = sketchOf(0, size / 2 + size);
+
+        left.merge(right);
+
+        assertArrayEquals(union.toBytes(), left.toBytes());
+        assertWithinBound(size / 2 + size, left.estimate());
+    }
+
+    @Test
+    void mergeOfSparseIntoDenseAndBackMatchesUnion() {
+        HyperLogLog dense = sketchOf(0, 100_000);
+        HyperLogLog sparse = sketchOf(100_000, 100_100);
+
+        HyperLogLog denseFirst = HyperLogLog.fromBytes(dense.toBytes());
+        denseFirst.merge(sparse);
+        HyperLogLog sparseFirst = HyperLogLog.fromBytes(sparse.toBytes());
+        sparseFirst.merge(dense);
+
+        byte[] expected = sketchOf(0, 100_100).toBytes();
+        assertArrayEquals(expected, denseFirst.toBytes());
+        assertArrayEquals(expected, sparseFirst.toBytes());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 500, 1_024, 1_025, 100_000})
+    void serializationRoundTripPreservesSketch(int cardinality) {
+        HyperLogLog sketch = sketchOf(0, cardinality);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertArrayEquals(sketch.toBytes(), restored.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test
+    void emptyBytesGiveEmptySketch() {
+        assertEquals(0, HyperLogLog.fromBytes(null).estimate());
+        assertEquals(0, HyperLogLog.fromBytes(new byte[0]).estimate());
+    }
+
+    private static void assertWithinBound(long expected, long estimate) {
+        double error = Math.abs(estimate - expected) / (double) expected;
+        assertTrue(error <= TOLERANCE, () -> "Estimate " + estimate + " for " + expected
+                + " values, relative error " + error + " exceeds " + TOLERANCE);
+    }
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add(ip(i));
+        }
+        return sketch;
+    }
+
+    // Различные ip для значений до 2^24
+    private static String ip(int value) {
+        return "10." + ((value >>> 16) & 0xFF) + '.' + ((value >>> 8) & 0xFF) + '.' + (value & 0xFF);
+    }
+}